@@ -0,0 +1,144 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.Hold;
+import org.example.core.domain.Player;
+import org.example.core.domain.Transaction;
+import org.example.core.service.HoldService;
+import org.example.core.service.PlayerService;
+import org.example.dto.HoldCaptureRequest;
+import org.example.dto.HoldReleaseRequest;
+import org.example.dto.HoldRequest;
+import org.example.security.JwtProvider;
+import org.example.util.Money;
+import org.example.util.TimeOrderedUuid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The {@code HoldController} class is a Spring REST controller for funds holds. A hold reserves an amount of the
+ * player's balance, for example for a bet whose outcome is not known yet, and is later captured as a debit, partially
+ * captured, released, or released automatically when its TTL runs out.
+ *
+ * <p>The controller is only available in the write modes that support holds.
+ */
+@Tag(name = "Funds holds API", description = "API for placing, capturing and releasing funds holds")
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnExpression(HoldService.ENABLED)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/players/holds", produces = "application/json")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final PlayerService playerService;
+    private final JwtProvider jwtProvider;
+
+    /**
+     * Places a hold on the player's available balance. A request that repeats the identifier of an already placed
+     * hold gets that hold back.
+     *
+     * @param request A {@code HoldRequest} object containing the amount, the TTL and the hold identifier.
+     * @param token   An authentication token provided in the request header.
+     * @return A ResponseEntity containing the placed hold.
+     */
+    @Operation(summary = "Method for placing a funds hold")
+    @PostMapping
+    public ResponseEntity<Map<String, String>> place(
+            @Valid @RequestBody HoldRequest request,
+            @RequestHeader("Authorization") String token) {
+        Map<String, String> response = new HashMap<>();
+
+        token = token.substring(7);
+        if (!jwtProvider.validateToken(token, request.getUsername())) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest()
+                    .body(response);
+        }
+
+        Player player = playerService.findByUsername(request.getUsername());
+        UUID holdIdentifier = request.getHoldIdentifier() != null
+                ? request.getHoldIdentifier()
+                : TimeOrderedUuid.next();
+        Hold hold = holdService.place(
+                player.getId(), Money.toMinorUnits(request.getAmount()), request.getTtl(), holdIdentifier);
+        return ResponseEntity.ok(holdResult(hold));
+    }
+
+    /**
+     * Captures the hold, or a part of it, as a debit and releases the rest.
+     *
+     * @param holdIdentifier The identifier of the hold.
+     * @param request        A {@code HoldCaptureRequest} object containing the captured amount.
+     * @param token          An authentication token provided in the request header.
+     * @return A ResponseEntity containing the result of the debit.
+     */
+    @Operation(summary = "Method for capturing a funds hold")
+    @PostMapping("/{holdIdentifier}/capture")
+    public ResponseEntity<Map<String, String>> capture(
+            @PathVariable UUID holdIdentifier,
+            @Valid @RequestBody HoldCaptureRequest request,
+            @RequestHeader("Authorization") String token) {
+        Map<String, String> response = new HashMap<>();
+
+        token = token.substring(7);
+        if (!jwtProvider.validateToken(token, request.getUsername())) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest()
+                    .body(response);
+        }
+
+        Player player = playerService.findByUsername(request.getUsername());
+        Long amount = request.getAmount() != null ? Money.toMinorUnits(request.getAmount()) : null;
+        Transaction transaction = holdService.capture(player.getId(), holdIdentifier, amount);
+        response.put("message", "Транзакция успешно завершена");
+        response.put("transactionIdentifier", transaction.getTransactionIdentifier().toString());
+        response.put("balance", Money.toDecimal(transaction.getBalanceAfter()).toString());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Releases the hold without a debit.
+     *
+     * @param holdIdentifier The identifier of the hold.
+     * @param request        A {@code HoldReleaseRequest} object containing the username.
+     * @param token          An authentication token provided in the request header.
+     * @return A ResponseEntity containing the released hold.
+     */
+    @Operation(summary = "Method for releasing a funds hold")
+    @PostMapping("/{holdIdentifier}/release")
+    public ResponseEntity<Map<String, String>> release(
+            @PathVariable UUID holdIdentifier,
+            @Valid @RequestBody HoldReleaseRequest request,
+            @RequestHeader("Authorization") String token) {
+        Map<String, String> response = new HashMap<>();
+
+        token = token.substring(7);
+        if (!jwtProvider.validateToken(token, request.getUsername())) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest()
+                    .body(response);
+        }
+
+        Player player = playerService.findByUsername(request.getUsername());
+        return ResponseEntity.ok(holdResult(holdService.release(player.getId(), holdIdentifier)));
+    }
+
+    private Map<String, String> holdResult(Hold hold) {
+        Map<String, String> response = new HashMap<>();
+        response.put("holdIdentifier", hold.getHoldIdentifier().toString());
+        response.put("status", hold.getStatus().name());
+        response.put("amount", Money.toDecimal(hold.getAmount()).toString());
+        response.put("expiresAt", hold.getExpiresAt().toString());
+        return response;
+    }
+}
@@ -1,20 +1,46 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.core.domain.Player;
+import org.example.core.domain.PendingTransaction;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.TransactionPage;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.service.AsyncTransactionService;
 import org.example.core.service.AuditService;
 import org.example.core.service.PlayerService;
+import org.example.core.service.TransactionHistoryService;
 import org.example.core.service.TransactionService;
 import org.example.dto.AuditDTO;
+import org.example.dto.TransactionBatchRequest;
 import org.example.dto.TransactionRequest;
-import org.example.dto.TransactionResponse;
-import org.example.mapper.TransactionMapper;
+import org.example.dto.TransferRequest;
+import org.example.mapper.PlayerMapper;
+import org.example.repository.projection.PlayerSummary;
+import org.example.repository.projection.StatementTotal;
+import org.example.repository.projection.TransactionView;
 import org.example.security.JwtProvider;
+import org.example.util.Money;
+import org.example.util.TimeOrderedUuid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,15 +66,19 @@ import java.util.UUID;
  */
 @Tag(name = "Base functional API", description = "API for player registration, getting transaction history and all audits")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping(value = "/players", produces = "application/json")
 public class PlayerController {
 
     private final PlayerService playerService;
     private final JwtProvider jwtProvider;
-    private final TransactionMapper transactionMapper;
+    private final PlayerMapper playerMapper;
     private final TransactionService transactionService;
     private final AuditService auditService;
+    private final AsyncTransactionService asyncTransactionService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Retrieves the balance of a player based on the provided authorization token.
@@ -69,36 +99,118 @@ public class PlayerController {
                     .body(response);
         }
 
-        String username = jwtProvider.extractUsername(token);
-        Player player = playerService.findByUsername(username);
-        response.put("balance", player.getBalance().toString());
+        PlayerSummary player = playerService.getPlayerSummary(jwtProvider.extractUsername(token));
+        response.put("balance", Money.toDecimal(player.balance()).toString());
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Retrieves the transaction history of a player based on the provided authorization token.
+     * Retrieves one page of the transaction history of a player based on the provided authorization token, newest
+     * first. The response carries a {@code nextCursor} to pass back for the following page while there is one.
      *
-     * @param token An authentication token provided in the request header.
-     * @return A ResponseEntity containing the transaction history of the player.
+     * @param cursor The cursor of the previous page, absent for the first page.
+     * @param limit  The page size, capped at {@code app.wallet.history.max-page-size}.
+     * @param type   The transaction type to keep, absent for all.
+     * @param from   The earliest recording time to keep, inclusive.
+     * @param to     The latest recording time to keep, exclusive.
+     * @param token  An authentication token provided in the request header.
+     * @return A ResponseEntity containing the page of the transaction history of the player.
      */
     @Operation(summary = "Method for viewing transaction history")
     @GetMapping("/history")
     public ResponseEntity<Map<String, Object>> viewTransactionHistory(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "type", required = false) TransactionType type,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
             @RequestHeader("Authorization") String token) {
         Map<String, Object> response = new HashMap<>();
 
+        token = token.substring(7);
         if (jwtProvider.isTokenExpired(token)) {
             response.put("error", "Incorrect login.");
             return ResponseEntity.badRequest().body(response);
         }
 
+        String username = jwtProvider.extractUsername(token);
+        TransactionPage page = transactionHistoryService.getPlayerHistory(
+                playerService.getPlayerId(username), cursor, limit, type, from, to);
+        response.put("username", username);
+        response.put("transactions", page.transactions());
+        response.put("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streams the whole transaction history of a player as newline-delimited JSON, oldest first. Rows are read from a
+     * database cursor and written to the response one at a time, so the memory used does not grow with the history.
+     *
+     * @param token An authentication token provided in the request header.
+     * @return A ResponseEntity streaming one transaction per line.
+     */
+    @Operation(summary = "Method for exporting the full transaction history")
+    @GetMapping(value = "/history/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
+            @RequestHeader("Authorization") String token) {
+        token = token.substring(7);
+        if (jwtProvider.isTokenExpired(token)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long playerId = playerService.getPlayerId(jwtProvider.extractUsername(token));
+        ObjectWriter writer = objectMapper.writerFor(TransactionView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                transactionHistoryService.exportPlayerHistory(playerId, transaction -> {
+                    try {
+                        writer.writeValue(generator, transaction);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Retrieves the number and the sum of a player's credits and debits over a range of days, answered from daily
+     * rollups, so the cost grows with the number of days rather than with the number of transactions.
+     *
+     * @param from  The first day of the statement, inclusive, in UTC.
+     * @param to    The last day of the statement, inclusive, in UTC.
+     * @param token An authentication token provided in the request header.
+     * @return A ResponseEntity containing the count and the total amount of every transaction type.
+     */
+    @Operation(summary = "Method for viewing the statement over a range of days")
+    @GetMapping("/statement")
+    public ResponseEntity<Map<String, Object>> viewStatement(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader("Authorization") String token) {
+        Map<String, Object> response = new HashMap<>();
+
         token = token.substring(7);
+        if (jwtProvider.isTokenExpired(token)) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest().body(response);
+        }
+
         String username = jwtProvider.extractUsername(token);
-        Player player = playerService.findByUsername(username);
-        List<TransactionResponse> list = transactionMapper.toDTOList(
-                transactionService.getPlayerHistory(player.getId()));
+        Map<TransactionType, StatementTotal> statement = transactionHistoryService.getStatement(
+                playerService.getPlayerId(username), from, to);
         response.put("username", username);
-        response.put("transactions", list);
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        statement.forEach((type, total) -> response.put(type.name().toLowerCase(), Map.of(
+                "count", total.count(),
+                "amount", Money.toDecimal(total.amount()))));
         return ResponseEntity.ok(response);
     }
 
@@ -128,15 +240,20 @@ public class PlayerController {
     /**
      * Handles credit transactions with a transaction ID. Receives a credit transaction request and an authentication token,
      * then returns a response with the result of the transaction, which may include an error message in case of failure.
+     * A request that repeats the transaction ID of an already recorded credit gets the original result back.
+     * With {@code async=true} the credit is only queued, and the response is 202 with the transaction ID to poll
+     * {@link #viewTransactionStatus} with.
      *
      * @param transaction A {@code TransactionWithId} object containing transaction details, including a transaction ID.
+     * @param async      Whether the credit is queued instead of applied before the response.
      * @param token      An authentication token provided in the request header.
      * @return A ResponseEntity containing the result of the credit transaction, including an error message if the transaction fails.
      */
     @Operation(summary = "Method for credit transaction")
     @PostMapping("/transactions/credit")
     public ResponseEntity<Map<String, String>> credit(
-            @RequestBody TransactionRequest transaction,
+            @Valid @RequestBody TransactionRequest transaction,
+            @RequestParam(name = "async", defaultValue = "false") boolean async,
             @RequestHeader("Authorization") String token) {
         Map<String, String> response = new HashMap<>();
 
@@ -148,15 +265,19 @@ public class PlayerController {
         }
 
         Player player = playerService.findByUsername(transaction.getUsername());
-        transactionService.credit(player.getId(), transaction.getAmount(), UUID.randomUUID());
-        response.put("message", "Транзакция успешно завершена");
-        return ResponseEntity.ok(response);
+        if (async) {
+            return submit(player, TransactionType.CREDIT, transaction);
+        }
+        Transaction result = transactionService.credit(
+                player.getId(), Money.toMinorUnits(transaction.getAmount()), transactionIdentifierOf(transaction));
+        return ResponseEntity.ok(transactionResult(result));
     }
 
     @Operation(summary = "Method for debit transaction")
     @PostMapping("/transactions/debit")
     public ResponseEntity<Map<String, String>> debit(
-            @RequestBody TransactionRequest transaction,
+            @Valid @RequestBody TransactionRequest transaction,
+            @RequestParam(name = "async", defaultValue = "false") boolean async,
             @RequestHeader("Authorization") String token) {
         Map<String, String> response = new HashMap<>();
 
@@ -168,11 +289,140 @@ public class PlayerController {
         }
 
         Player player = playerService.findByUsername(transaction.getUsername());
-        transactionService.debit(player.getId(), transaction.getAmount(), UUID.randomUUID());
-        response.put("message", "Транзакция успешно завершена");
+        if (async) {
+            return submit(player, TransactionType.DEBIT, transaction);
+        }
+        Transaction result = transactionService.debit(
+                player.getId(), Money.toMinorUnits(transaction.getAmount()), transactionIdentifierOf(transaction));
+        return ResponseEntity.ok(transactionResult(result));
+    }
+
+    /**
+     * Handles a transfer between two players. The sender's balance is debited and the recipient's balance is credited
+     * in one commit, so either both sides are recorded or neither is.
+     *
+     * @param transfer A {@code TransferRequest} object containing the sender, the recipient and the amount.
+     * @param token    An authentication token of the sender provided in the request header.
+     * @return A ResponseEntity containing the result of the sender's debit.
+     */
+    @Operation(summary = "Method for transfer between players")
+    @PostMapping("/transactions/transfer")
+    public ResponseEntity<Map<String, String>> transfer(
+            @Valid @RequestBody TransferRequest transfer,
+            @RequestHeader("Authorization") String token) {
+        Map<String, String> response = new HashMap<>();
+
+        token = token.substring(7);
+        if (!jwtProvider.validateToken(token, transfer.getUsername())) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest()
+                    .body(response);
+        }
+
+        Player sender = playerService.findByUsername(transfer.getUsername());
+        Player recipient = playerService.findByUsername(transfer.getRecipient());
+        UUID transactionIdentifier = transfer.getTransactionIdentifier() != null
+                ? transfer.getTransactionIdentifier()
+                : TimeOrderedUuid.next();
+        Transaction result = transactionService.transfer(
+                sender.getId(), recipient.getId(), Money.toMinorUnits(transfer.getAmount()), transactionIdentifier);
+        return ResponseEntity.ok(transactionResult(result));
+    }
+
+    /**
+     * Handles a batch of credit and debit transactions of one player. Every entry carries its own transaction ID,
+     * and the response reports the result of each entry instead of failing the whole batch.
+     *
+     * @param batch A {@code TransactionBatchRequest} object containing the username and the entries.
+     * @param token An authentication token provided in the request header.
+     * @return A ResponseEntity containing the result of every entry, in the order of the request.
+     */
+    @Operation(summary = "Method for batch of credit and debit transactions")
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<Map<String, Object>> batch(
+            @Valid @RequestBody TransactionBatchRequest batch,
+            @RequestHeader("Authorization") String token) {
+        Map<String, Object> response = new HashMap<>();
+
+        token = token.substring(7);
+        if (!jwtProvider.validateToken(token, batch.getUsername())) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest()
+                    .body(response);
+        }
+
+        Player player = playerService.findByUsername(batch.getUsername());
+        response.put("results", transactionService.batch(player.getId(), batch.getEntries()));
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Retrieves the state of a transaction submitted with {@code async=true}, or of any recorded transaction.
+     *
+     * @param transactionIdentifier The transaction ID returned on submission.
+     * @param token                 An authentication token provided in the request header.
+     * @return A ResponseEntity containing the status, and the balance or the error once the transaction is processed.
+     */
+    @Operation(summary = "Method for viewing the status of a transaction")
+    @GetMapping("/transactions/{transactionIdentifier}")
+    public ResponseEntity<Map<String, String>> viewTransactionStatus(
+            @PathVariable UUID transactionIdentifier,
+            @RequestHeader("Authorization") String token) {
+        Map<String, String> response = new HashMap<>();
+
+        token = token.substring(7);
+        if (jwtProvider.isTokenExpired(token)) {
+            response.put("error", "Incorrect login.");
+            return ResponseEntity.badRequest()
+                    .body(response);
+        }
+
+        Long playerId = playerService.getPlayerId(jwtProvider.extractUsername(token));
+        PendingTransaction pending = asyncTransactionService.status(transactionIdentifier)
+                .filter(status -> status.getPlayerId().equals(playerId))
+                .orElse(null);
+        if (pending == null) {
+            response.put("error", "Transaction not found.");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(response);
+        }
+        return ResponseEntity.ok(pendingResult(pending));
+    }
+
+    private ResponseEntity<Map<String, String>> submit(Player player, TransactionType type, TransactionRequest transaction) {
+        PendingTransaction pending = asyncTransactionService.submit(
+                player.getId(), type, Money.toMinorUnits(transaction.getAmount()), transactionIdentifierOf(transaction));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(pendingResult(pending));
+    }
+
+    private Map<String, String> pendingResult(PendingTransaction pending) {
+        Map<String, String> response = new HashMap<>();
+        response.put("transactionIdentifier", pending.getTransactionIdentifier().toString());
+        response.put("status", pending.getStatus().name());
+        if (pending.getBalanceAfter() != null) {
+            response.put("balance", Money.toDecimal(pending.getBalanceAfter()).toString());
+        }
+        if (pending.getError() != null) {
+            response.put("error", pending.getError());
+        }
+        return response;
+    }
+
+    private UUID transactionIdentifierOf(TransactionRequest transaction) {
+        return transaction.getTransactionIdentifier() != null
+                ? transaction.getTransactionIdentifier()
+                : TimeOrderedUuid.next();
+    }
+
+    private Map<String, String> transactionResult(Transaction transaction) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Транзакция успешно завершена");
+        response.put("transactionIdentifier", transaction.getTransactionIdentifier().toString());
+        response.put("balance", Money.toDecimal(transaction.getBalanceAfter()).toString());
+        return response;
+    }
+
     @GetMapping("/info")
     public ResponseEntity<Map<String, Object>> viewPlayerInfo(
             @RequestHeader("Authorization") String token) {
@@ -185,9 +435,8 @@ public class PlayerController {
         }
 
 
-        String username = jwtProvider.extractUsername(token);
-        Player player = playerService.findByUsername(username);
-        response.put("info", player);
+        PlayerSummary player = playerService.getPlayerSummary(jwtProvider.extractUsername(token));
+        response.put("info", playerMapper.toDto(player));
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,154 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.service.ReactiveTransactionService;
+import org.example.dto.TransactionRequest;
+import org.example.security.JwtProvider;
+import org.example.util.Money;
+import org.example.util.TimeOrderedUuid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The {@code ReactivePlayerController} class serves the balance, history, credit and debit endpoints of
+ * {@link PlayerController} on the reactive stack, for nodes that hold many concurrent idle connections. Requests and
+ * responses are the same as those of the servlet controller; the remaining endpoints are served by servlet nodes only.
+ */
+@Tag(name = "Reactive player API", description = "Non-blocking API for the balance, the transaction history, credit and debit")
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/players", produces = "application/json")
+public class ReactivePlayerController {
+
+    private final JwtProvider jwtProvider;
+    private final ReactiveTransactionService reactiveTransactionService;
+
+    /**
+     * Retrieves the balance of a player based on the provided authorization token.
+     *
+     * @param token An authentication token provided in the request header.
+     * @return A ResponseEntity containing the player's balance.
+     */
+    @Operation(summary = "Method for viewing the balance")
+    @GetMapping("/balance")
+    public Mono<ResponseEntity<Map<String, String>>> viewPlayerBalance(
+            @RequestHeader("Authorization") String token) {
+        String jwt = token.substring(7);
+        if (jwtProvider.isTokenExpired(jwt)) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Incorrect login.")));
+        }
+
+        return reactiveTransactionService.findPlayer(jwtProvider.extractUsername(jwt))
+                .map(player -> ResponseEntity.ok(Map.of("balance", Money.toDecimal(player.getBalance()).toString())));
+    }
+
+    /**
+     * Retrieves one page of the transaction history of a player based on the provided authorization token, newest
+     * first. The response carries a {@code nextCursor} to pass back for the following page while there is one.
+     *
+     * @param cursor The cursor of the previous page, absent for the first page.
+     * @param limit  The page size, capped at {@code app.wallet.history.max-page-size}.
+     * @param type   The transaction type to keep, absent for all.
+     * @param from   The earliest recording time to keep, inclusive.
+     * @param to     The latest recording time to keep, exclusive.
+     * @param token  An authentication token provided in the request header.
+     * @return A ResponseEntity containing the page of the transaction history of the player.
+     */
+    @Operation(summary = "Method for viewing transaction history")
+    @GetMapping("/history")
+    public Mono<ResponseEntity<Map<String, Object>>> viewTransactionHistory(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "type", required = false) TransactionType type,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestHeader("Authorization") String token) {
+        String jwt = token.substring(7);
+        if (jwtProvider.isTokenExpired(jwt)) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Incorrect login.")));
+        }
+
+        String username = jwtProvider.extractUsername(jwt);
+        return reactiveTransactionService.findPlayer(username)
+                .flatMap(player -> reactiveTransactionService.getPlayerHistory(
+                        player.getId(), cursor, limit, type, from, to))
+                .map(page -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("username", username);
+                    response.put("transactions", page.transactions());
+                    response.put("nextCursor", page.nextCursor());
+                    return ResponseEntity.ok(response);
+                });
+    }
+
+    /**
+     * Handles credit transactions with a transaction ID. A request that repeats the transaction ID of an already
+     * recorded credit gets the original result back.
+     *
+     * @param transaction A {@code TransactionRequest} object containing transaction details.
+     * @param token       An authentication token provided in the request header.
+     * @return A ResponseEntity containing the result of the credit transaction.
+     */
+    @Operation(summary = "Method for credit transaction")
+    @PostMapping("/transactions/credit")
+    public Mono<ResponseEntity<Map<String, String>>> credit(
+            @Valid @RequestBody TransactionRequest transaction,
+            @RequestHeader("Authorization") String token) {
+        if (!jwtProvider.validateToken(token.substring(7), transaction.getUsername())) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Incorrect login.")));
+        }
+
+        long amount = Money.toMinorUnits(transaction.getAmount());
+        return reactiveTransactionService.findPlayer(transaction.getUsername())
+                .flatMap(player -> reactiveTransactionService.credit(
+                        player.getId(), amount, transactionIdentifierOf(transaction)))
+                .map(result -> ResponseEntity.ok(transactionResult(result)));
+    }
+
+    @Operation(summary = "Method for debit transaction")
+    @PostMapping("/transactions/debit")
+    public Mono<ResponseEntity<Map<String, String>>> debit(
+            @Valid @RequestBody TransactionRequest transaction,
+            @RequestHeader("Authorization") String token) {
+        if (!jwtProvider.validateToken(token.substring(7), transaction.getUsername())) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Incorrect login.")));
+        }
+
+        long amount = Money.toMinorUnits(transaction.getAmount());
+        return reactiveTransactionService.findPlayer(transaction.getUsername())
+                .flatMap(player -> reactiveTransactionService.debit(
+                        player.getId(), amount, transactionIdentifierOf(transaction)))
+                .map(result -> ResponseEntity.ok(transactionResult(result)));
+    }
+
+    private UUID transactionIdentifierOf(TransactionRequest transaction) {
+        return transaction.getTransactionIdentifier() != null
+                ? transaction.getTransactionIdentifier()
+                : TimeOrderedUuid.next();
+    }
+
+    private Map<String, String> transactionResult(Transaction transaction) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Транзакция успешно завершена");
+        response.put("transactionIdentifier", transaction.getTransactionIdentifier().toString());
+        response.put("balance", Money.toDecimal(transaction.getBalanceAfter()).toString());
+        return response;
+    }
+}
@@ -7,6 +7,7 @@ import org.example.core.service.SecurityService;
 import org.example.logging.aop.annotations.LoggableInfo;
 import org.example.mapper.PlayerMapper;
 import org.example.wrapper.PlayerWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -36,6 +37,7 @@ import java.util.Map;
  */
 @Tag(name = "API for player authorization", description = "This API returns the JWT token in response, thereby ensuring the security of subsequent operations performed")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping(value = "/auth", produces = "application/json")
 public class SecurityController {
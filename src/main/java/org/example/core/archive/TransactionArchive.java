@@ -0,0 +1,194 @@
+package org.example.core.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.сonfiguration.ArchiveProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The {@code TransactionArchive} class serves the transactions that have been moved out of the database into the
+ * segment files in {@code app.wallet.archive.directory}. Segments are named after the monthly partition they were
+ * archived from, so they sort from oldest to newest. All archived transactions are older than those still in
+ * {@code wallet.transactions}.
+ *
+ * <p>Segments written by the {@link TransactionArchiver} of any instance sharing the directory are picked up every
+ * {@code app.wallet.archive.refresh-interval}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionArchive {
+
+    private final ArchiveProperties archiveProperties;
+
+    private final ConcurrentSkipListMap<String, TransactionSegment> segments = new ConcurrentSkipListMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void open() throws IOException {
+        refresh();
+        log.info("Transaction archive opened with {} segments", segments.size());
+        long interval = archiveProperties.getRefreshInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "transaction-archive-refresh"));
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (TransactionSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Starts serving the segments in the directory that are not served yet. Segments being written are not seen: they
+     * are moved into place under their name only once complete.
+     *
+     * @return the number of segments added
+     */
+    public int refresh() throws IOException {
+        Path directory = Path.of(archiveProperties.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int added = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(TransactionSegment.EXTENSION)).toList()) {
+                String fileName = file.getFileName().toString();
+                String name = fileName.substring(0, fileName.length() - TransactionSegment.EXTENSION.length());
+                if (segments.containsKey(name)) {
+                    continue;
+                }
+                // the archiver of this instance may have added it meanwhile
+                TransactionSegment segment = TransactionSegment.open(file);
+                if (segments.putIfAbsent(name, segment) == null) {
+                    added++;
+                } else {
+                    segment.close();
+                }
+            }
+        }
+        return added;
+    }
+
+    private void refreshQuietly() {
+        try {
+            int added = refresh();
+            if (added > 0) {
+                log.info("Transaction archive picked up {} new segments", added);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to look for new segments in the transaction archive", e);
+        }
+    }
+
+    /**
+     * Starts serving a segment. A segment of the same name that was served before is replaced; it is left open for
+     * reads still running on it.
+     *
+     * @param file the segment file
+     */
+    public void add(Path file) throws IOException {
+        TransactionSegment segment = TransactionSegment.open(file);
+        segments.put(segment.name(), segment);
+    }
+
+    /**
+     * Puts the player's archived transactions, oldest first, in front of the ones read from the database.
+     *
+     * @param playerId     the player id
+     * @param transactions the player's transactions in the database
+     * @return the player's full history
+     */
+    public List<Transaction> withArchived(Long playerId, List<Transaction> transactions) {
+        if (segments.isEmpty()) {
+            return transactions;
+        }
+        List<Transaction> history = new ArrayList<>();
+        forEach(playerId, history::add);
+        history.addAll(transactions);
+        return history;
+    }
+
+    /**
+     * Hands the player's archived transactions to the consumer, oldest first, inflating one block at a time.
+     *
+     * @param playerId the player id
+     * @param consumer the consumer of the transactions
+     */
+    public void forEach(Long playerId, Consumer<Transaction> consumer) {
+        for (TransactionSegment segment : segments.values()) {
+            for (int block = segment.firstBlock(playerId); isPlayerBlock(segment, block, playerId); block++) {
+                segment.readBlock(block).forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * Reads one page of the player's archived transactions, newest first, below an id. Blocks that lie entirely at or
+     * above the id are skipped without being inflated.
+     *
+     * @param playerId the player id
+     * @param beforeId the id to continue below, or {@code null} to start at the newest
+     * @param type     the transaction type to keep, or {@code null} for all
+     * @param from     the earliest recording time to keep, inclusive, or {@code null}
+     * @param to       the latest recording time to keep, exclusive, or {@code null}
+     * @param limit    the maximum number of transactions
+     * @return the transactions, newest first
+     */
+    public List<Transaction> findHistoryPage(Long playerId, Long beforeId, TransactionType type,
+                                             Instant from, Instant to, int limit) {
+        List<Transaction> page = new ArrayList<>();
+        for (TransactionSegment segment : segments.descendingMap().values()) {
+            int first = segment.firstBlock(playerId);
+            int block = first;
+            while (isPlayerBlock(segment, block, playerId)) {
+                block++;
+            }
+            for (block--; block >= first && page.size() < limit; block--) {
+                if (beforeId != null && segment.firstId(block) >= beforeId) {
+                    continue;
+                }
+                List<Transaction> transactions = segment.readBlock(block);
+                for (int i = transactions.size() - 1; i >= 0 && page.size() < limit; i--) {
+                    Transaction transaction = transactions.get(i);
+                    if ((beforeId == null || transaction.getTransactionId() < beforeId)
+                            && (type == null || transaction.getType() == type)
+                            && (from == null || !transaction.getCreatedAt().isBefore(from))
+                            && (to == null || transaction.getCreatedAt().isBefore(to))) {
+                        page.add(transaction);
+                    }
+                }
+            }
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private static boolean isPlayerBlock(TransactionSegment segment, int block, long playerId) {
+        return block < segment.blockCount() && segment.playerId(block) == playerId;
+    }
+}
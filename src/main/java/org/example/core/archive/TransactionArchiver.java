@@ -0,0 +1,152 @@
+package org.example.core.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.TransactionPartitionRepository;
+import org.example.сonfiguration.ArchiveProperties;
+import org.example.сonfiguration.LedgerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code TransactionArchiver} class moves the partitions of {@code wallet.transactions} that the
+ * {@link org.example.core.partition.TransactionPartitionManager} has detached out of the database. Every
+ * {@code app.wallet.archive.check-interval} each detached partition is written to a segment file and handed to the
+ * {@link TransactionArchive}; a later run drops it.
+ *
+ * <p>A partition is dropped only once its segment has been in the directory for twice
+ * {@code app.wallet.archive.refresh-interval}, so every instance sharing the directory serves it by then. Instances
+ * that archive the same database take turns on each partition under an advisory lock, and a segment appears under its
+ * name only once it is complete. If the archiver stops between writing and dropping, the next run finds the segment
+ * and only drops the partition. The identifiers of archived transactions stay in {@code transaction_identifiers} and
+ * the daily rollups keep their totals.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionArchiver {
+
+    private final TransactionPartitionRepository transactionPartitionRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties archiveProperties;
+    private final LedgerProperties ledgerProperties;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Balance folds and snapshot rebuilds of the event-sourced ledger read only {@code wallet.transactions}; dropping
+     * an archived partition would take its transactions out of them for good.
+     */
+    @PostConstruct
+    void checkLedgerMode() {
+        if (archiveProperties.isEnabled() && ledgerProperties.getMode() == LedgerProperties.Mode.EVENT_SOURCED) {
+            throw new IllegalStateException("app.wallet.archive cannot be used with the event-sourced ledger");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        long interval = archiveProperties.getCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "transaction-archiver"));
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the segment of every detached partition that has none yet, and drops those whose segment every instance
+     * serves by now. Partitions that another instance is archiving are left to it.
+     *
+     * @return the number of partitions whose segment was written
+     */
+    public int archiveDetachedPartitions() throws IOException {
+        Path directory = Files.createDirectories(Path.of(archiveProperties.getDirectory()));
+        int archived = 0;
+        for (String name : transactionPartitionRepository.findDetachedPartitions()) {
+            if (archive(name, directory.resolve(name + TransactionSegment.EXTENSION))) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Runs in one transaction, which holds the partition's lock and drops the partition when it commits.
+     *
+     * @return whether the segment was written
+     */
+    private boolean archive(String name, Path file) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            // the partition may have been dropped by another instance since it was listed
+            if (!transactionPartitionRepository.tryLockPartition(name)
+                    || !transactionPartitionRepository.tableExists(name)) {
+                return false;
+            }
+            try {
+                if (!Files.exists(file)) {
+                    writeSegment(name, file);
+                    return true;
+                }
+                if (isServedEverywhere(file)) {
+                    transactionPartitionRepository.dropPartition(name);
+                    log.info("Dropped archived partition {}", name);
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private boolean isServedEverywhere(Path file) throws IOException {
+        Instant written = Files.getLastModifiedTime(file).toInstant();
+        return written.plus(archiveProperties.getRefreshInterval().multipliedBy(2)).isBefore(Instant.now());
+    }
+
+    private void writeSegment(String name, Path file) throws IOException {
+        long count;
+        try (TransactionSegmentWriter writer = new TransactionSegmentWriter(file, archiveProperties.getBlockSize())) {
+            transactionPartitionRepository.streamPartition(name, archiveProperties.getFetchSize(), transaction -> {
+                try {
+                    writer.append(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+            count = writer.count();
+        }
+        transactionArchive.add(file);
+        log.info("Archived {} transactions of partition {} to {}", count, name, file);
+    }
+
+    private void archiveQuietly() {
+        try {
+            archiveDetachedPartitions();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to archive the detached transaction partitions", e);
+        }
+    }
+}
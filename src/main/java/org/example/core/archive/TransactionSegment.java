@@ -0,0 +1,294 @@
+package org.example.core.archive;
+
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only segment of archived transactions, written by {@link TransactionSegmentWriter}.
+ *
+ * <p>The transactions are sorted by player and id and cut into blocks of one player each. A block stores every column
+ * separately, ids and times as varint deltas and balances as zigzag varints, and is deflate-compressed as a whole. The
+ * index at the end of the file holds the player, id range and position of every block, so the transactions of one
+ * player are found by a binary search and read by inflating only that player's blocks. Blocks are read through
+ * memory-mapped regions of the file.
+ *
+ * <pre>
+ * header  int magic, int version
+ * blocks  compressed block ...
+ * index   (long playerId, long firstId, long lastId, long offset, int compressedLength, int length, int rows) ...
+ * footer  long indexOffset, int blockCount, int magic
+ * </pre>
+ */
+public class TransactionSegment implements Closeable {
+
+    public static final String EXTENSION = ".segment";
+
+    static final int MAGIC = 0x57545853;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+    static final int INDEX_ENTRY_SIZE = 4 * Long.BYTES + 3 * Integer.BYTES;
+    static final int FOOTER_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final String name;
+    private final FileChannel channel;
+    private final long[] playerIds;
+    private final long[] firstIds;
+    private final long[] lastIds;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] lengths;
+    private final int[] rows;
+
+    private TransactionSegment(String name, FileChannel channel, int blockCount) {
+        this.name = name;
+        this.channel = channel;
+        this.playerIds = new long[blockCount];
+        this.firstIds = new long[blockCount];
+        this.lastIds = new long[blockCount];
+        this.offsets = new long[blockCount];
+        this.compressedLengths = new int[blockCount];
+        this.lengths = new int[blockCount];
+        this.rows = new int[blockCount];
+    }
+
+    /**
+     * Opens a segment and reads its index.
+     *
+     * @param file the segment file
+     * @return the segment, to be closed when no longer read
+     */
+    public static TransactionSegment open(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("Segment " + file + " is truncated");
+            }
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            int blockCount = footer.getInt();
+            if (footer.getInt() != MAGIC || indexOffset + (long) blockCount * INDEX_ENTRY_SIZE != size - FOOTER_SIZE) {
+                throw new IOException("Segment " + file + " is not a complete transaction segment");
+            }
+
+            TransactionSegment segment = new TransactionSegment(
+                    fileName.substring(0, fileName.length() - EXTENSION.length()), channel, blockCount);
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) blockCount * INDEX_ENTRY_SIZE);
+            for (int i = 0; i < blockCount; i++) {
+                segment.playerIds[i] = index.getLong();
+                segment.firstIds[i] = index.getLong();
+                segment.lastIds[i] = index.getLong();
+                segment.offsets[i] = index.getLong();
+                segment.compressedLengths[i] = index.getInt();
+                segment.lengths[i] = index.getInt();
+                segment.rows[i] = index.getInt();
+            }
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The name of the segment, which is the name of the partition it was archived from.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Finds the first block of the player.
+     *
+     * @param playerId the player id
+     * @return the index of the player's first block; the player has no blocks if it is {@link #blockCount()} or
+     * belongs to another player
+     */
+    public int firstBlock(long playerId) {
+        int low = 0;
+        int high = playerIds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (playerIds[middle] < playerId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public int blockCount() {
+        return playerIds.length;
+    }
+
+    public long playerId(int block) {
+        return playerIds[block];
+    }
+
+    public long firstId(int block) {
+        return firstIds[block];
+    }
+
+    public long lastId(int block) {
+        return lastIds[block];
+    }
+
+    /**
+     * Inflates and decodes a block.
+     *
+     * @param block the index of the block
+     * @return the transactions of the block, oldest first
+     */
+    public List<Transaction> readBlock(int block) {
+        byte[] data = new byte[lengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(channel.map(FileChannel.MapMode.READ_ONLY, offsets[block], compressedLengths[block]));
+            if (inflater.inflate(data) != data.length || !inflater.finished()) {
+                throw new IllegalStateException("Block " + block + " of segment " + name + " is corrupt");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Block " + block + " of segment " + name + " is corrupt", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+        return decode(ByteBuffer.wrap(data), playerIds[block], rows[block]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Encodes the transactions of one player, sorted by id, column by column.
+     */
+    static byte[] encode(List<Transaction> transactions) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(transactions.size() * 32);
+        long previousId = 0;
+        for (Transaction transaction : transactions) {
+            putVarLong(out, transaction.getTransactionId() - previousId);
+            previousId = transaction.getTransactionId();
+        }
+        for (Transaction transaction : transactions) {
+            out.write(transaction.getType().ordinal());
+        }
+        for (Transaction transaction : transactions) {
+            putVarLong(out, zigzag(transaction.getAmount()));
+        }
+        for (Transaction transaction : transactions) {
+            putVarLong(out, zigzag(transaction.getBalanceBefore()));
+        }
+        for (Transaction transaction : transactions) {
+            putVarLong(out, zigzag(transaction.getBalanceAfter()));
+        }
+        ByteBuffer identifier = ByteBuffer.allocate(2 * Long.BYTES);
+        for (Transaction transaction : transactions) {
+            identifier.clear();
+            identifier.putLong(transaction.getTransactionIdentifier().getMostSignificantBits())
+                    .putLong(transaction.getTransactionIdentifier().getLeastSignificantBits());
+            out.write(identifier.array(), 0, identifier.capacity());
+        }
+        long previousMicros = 0;
+        for (Transaction transaction : transactions) {
+            long micros = ChronoUnit.MICROS.between(Instant.EPOCH, transaction.getCreatedAt());
+            putVarLong(out, zigzag(micros - previousMicros));
+            previousMicros = micros;
+        }
+        return out.toByteArray();
+    }
+
+    static List<Transaction> decode(ByteBuffer in, long playerId, int count) {
+        long[] ids = new long[count];
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += getVarLong(in);
+            ids[i] = id;
+        }
+        byte[] types = new byte[count];
+        in.get(types);
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = unzigzag(getVarLong(in));
+        }
+        long[] balancesBefore = new long[count];
+        for (int i = 0; i < count; i++) {
+            balancesBefore[i] = unzigzag(getVarLong(in));
+        }
+        long[] balancesAfter = new long[count];
+        for (int i = 0; i < count; i++) {
+            balancesAfter[i] = unzigzag(getVarLong(in));
+        }
+        UUID[] identifiers = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            identifiers[i] = new UUID(in.getLong(), in.getLong());
+        }
+
+        List<Transaction> transactions = new ArrayList<>(count);
+        long micros = 0;
+        for (int i = 0; i < count; i++) {
+            micros += unzigzag(getVarLong(in));
+            transactions.add(Transaction.builder()
+                    .transactionId(ids[i])
+                    .type(TYPES[types[i]])
+                    .amount(amounts[i])
+                    .balanceBefore(balancesBefore[i])
+                    .balanceAfter(balancesAfter[i])
+                    .transactionIdentifier(identifiers[i])
+                    .playerId(playerId)
+                    .createdAt(Instant.EPOCH.plus(micros, ChronoUnit.MICROS))
+                    .build());
+        }
+        return transactions;
+    }
+
+    static void putVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.core.archive;
+
+import org.example.core.domain.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a {@link TransactionSegment}. The transactions must be appended sorted by player and id.
+ *
+ * <p>The segment is written to a temporary file next to the target and moved into place by {@link #finish()} once
+ * it is on the storage device, so a segment file is always complete. Closing the writer without finishing it deletes
+ * the temporary file.
+ */
+public class TransactionSegmentWriter implements Closeable {
+
+    private final Path file;
+    private final Path temporaryFile;
+    private final FileChannel channel;
+    private final int blockSize;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final List<Transaction> block = new ArrayList<>();
+    private final List<ByteBuffer> index = new ArrayList<>();
+    private Transaction last;
+    private long position;
+    private long count;
+    private boolean finished;
+
+    /**
+     * Starts a segment.
+     *
+     * @param file      the segment file, replaced when it exists
+     * @param blockSize the maximum number of transactions in a block
+     */
+    public TransactionSegmentWriter(Path file, int blockSize) throws IOException {
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.blockSize = blockSize;
+        this.channel = FileChannel.open(temporaryFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        write(ByteBuffer.allocate(TransactionSegment.HEADER_SIZE)
+                .putInt(TransactionSegment.MAGIC)
+                .putInt(TransactionSegment.VERSION)
+                .flip());
+    }
+
+    /**
+     * Appends a transaction.
+     *
+     * @param transaction the transaction, after all transactions of smaller players and ids
+     */
+    public void append(Transaction transaction) throws IOException {
+        if (last != null) {
+            int order = Long.compare(last.getPlayerId(), transaction.getPlayerId());
+            if (order > 0 || order == 0 && last.getTransactionId() >= transaction.getTransactionId()) {
+                throw new IllegalArgumentException("Transactions must be appended sorted by player and id");
+            }
+            if (order != 0 || block.size() == blockSize) {
+                flushBlock();
+            }
+        }
+        block.add(transaction);
+        last = transaction;
+        count++;
+    }
+
+    /**
+     * The number of transactions appended so far.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Writes the index, forces the segment to the storage device and moves it into place.
+     */
+    public void finish() throws IOException {
+        flushBlock();
+        long indexOffset = position;
+        for (ByteBuffer entry : index) {
+            write(entry);
+        }
+        write(ByteBuffer.allocate(TransactionSegment.FOOTER_SIZE)
+                .putLong(indexOffset)
+                .putInt(index.size())
+                .putInt(TransactionSegment.MAGIC)
+                .flip());
+        channel.force(true);
+        channel.close();
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            channel.close();
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        byte[] data = TransactionSegment.encode(block);
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[Math.max(64, data.length / 2)];
+        long offset = position;
+        while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            write(ByteBuffer.wrap(buffer, 0, length));
+        }
+
+        Transaction first = block.get(0);
+        index.add(ByteBuffer.allocate(TransactionSegment.INDEX_ENTRY_SIZE)
+                .putLong(first.getPlayerId())
+                .putLong(first.getTransactionId())
+                .putLong(block.get(block.size() - 1).getTransactionId())
+                .putLong(offset)
+                .putInt((int) (position - offset))
+                .putInt(data.length)
+                .putInt(block.size())
+                .flip());
+        block.clear();
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.core.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.Transaction;
+import org.example.repository.projection.PlayerSummary;
+import org.example.сonfiguration.BalanceCacheProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code PlayerBalanceCache} class keeps the summaries of recently read players in process, so that polling the
+ * balance of a hot player does not reach the database. It holds at most {@code app.wallet.balance-cache.maximum-size}
+ * players, evicting the least recently used one, and serves an entry for {@code app.wallet.balance-cache.ttl} after it
+ * was loaded or written.
+ *
+ * <p>Recorded transactions write their balance through once they commit. A cached balance is only moved along when
+ * the transaction starts from it; otherwise commits were seen out of order or a change was missed, and the entry is
+ * dropped to be loaded again. A player that is not cached gets an entry without a username, which a later load
+ * completes: the load may have read the balance before the commit, so it never replaces a written balance.
+ *
+ * <p>The players are spread by id over {@code app.wallet.balance-cache.segments} segments, each an access-ordered map
+ * under its own lock that holds its share of the maximum size, so reads of different players rarely contend. The
+ * least recently used player is evicted per segment. Usernames are resolved to player ids through a concurrent map;
+ * a name that points at a player who is no longer cached, or no longer under that name, reads as a miss.
+ *
+ * <p>Hits, misses and evictions are published as {@code wallet.balance.cache.*} meters.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlayerBalanceCache {
+
+    private final BalanceCacheProperties balanceCacheProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ConcurrentMap<String, Long> playerIds = new ConcurrentHashMap<>();
+    private Segment[] segments;
+    private long ttlNanos;
+    private Counter sizeEvictions;
+    private Counter expiryEvictions;
+
+    @PostConstruct
+    void start() {
+        ttlNanos = balanceCacheProperties.getTtl().toNanos();
+        // a power of two, so that a segment is picked by masking the spread id
+        int segmentCount = Integer.highestOneBit(Math.max(1, balanceCacheProperties.getSegments()) * 2 - 1);
+        int segmentSize = Math.max(1, (balanceCacheProperties.getMaximumSize() + segmentCount - 1) / segmentCount);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+
+        FunctionCounter.builder("wallet.balance.cache.hits", hits, LongAdder::doubleValue)
+                .description("Balance reads served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("wallet.balance.cache.misses", misses, LongAdder::doubleValue)
+                .description("Balance reads that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("wallet.balance.cache.hit.ratio", this, PlayerBalanceCache::hitRatio)
+                .description("Share of balance reads served from the cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("wallet.balance.cache.size", this, PlayerBalanceCache::size)
+                .description("Players in the balance cache")
+                .register(meterRegistry);
+        sizeEvictions = Counter.builder("wallet.balance.cache.evictions")
+                .description("Players evicted from the balance cache")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        expiryEvictions = Counter.builder("wallet.balance.cache.evictions")
+                .description("Players evicted from the balance cache")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached summary of the player.
+     *
+     * @param username the username of the player
+     * @return the summary, or empty if the player is not cached or the cache is disabled
+     */
+    public Optional<PlayerSummary> get(String username) {
+        if (!balanceCacheProperties.isEnabled()) {
+            return Optional.empty();
+        }
+        Long playerId = playerIds.get(username);
+        if (playerId == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        Segment segment = segmentOf(playerId);
+        synchronized (segment) {
+            Entry entry = segment.get(playerId);
+            if (entry != null && !username.equals(entry.username())) {
+                entry = null;
+            } else if (entry != null && entry.expiresAt() - System.nanoTime() < 0) {
+                remove(segment, playerId);
+                expiryEvictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(new PlayerSummary(playerId, username, entry.balance()));
+        }
+    }
+
+    /**
+     * Caches a summary loaded from the primary; a replica may lag behind the balances written through. A balance
+     * written through in the meantime is kept.
+     *
+     * @param summary the summary of the player
+     */
+    public void load(PlayerSummary summary) {
+        if (!balanceCacheProperties.isEnabled()) {
+            return;
+        }
+        Segment segment = segmentOf(summary.id());
+        synchronized (segment) {
+            Entry entry = segment.get(summary.id());
+            if (entry == null) {
+                put(segment, summary.id(), summary.username(), summary.balance(), System.nanoTime() + ttlNanos);
+            } else if (entry.username() == null) {
+                put(segment, summary.id(), summary.username(), entry.balance(), entry.expiresAt());
+            }
+        }
+    }
+
+    /**
+     * Writes the balance of the transaction through once the surrounding database transaction commits, or at once
+     * outside of one.
+     *
+     * @param transaction the recorded transaction
+     */
+    public void record(Transaction transaction) {
+        afterCommit(() -> writeThrough(transaction));
+    }
+
+    /**
+     * Drops the player once the surrounding database transaction commits, or at once outside of one.
+     *
+     * @param playerId the player id
+     */
+    public void evict(Long playerId) {
+        afterCommit(() -> {
+            Segment segment = segmentOf(playerId);
+            synchronized (segment) {
+                remove(segment, playerId);
+            }
+        });
+    }
+
+    private void writeThrough(Transaction transaction) {
+        if (!balanceCacheProperties.isEnabled()) {
+            return;
+        }
+        Segment segment = segmentOf(transaction.getPlayerId());
+        synchronized (segment) {
+            Entry entry = segment.get(transaction.getPlayerId());
+            if (entry == null || entry.balance() == transaction.getBalanceBefore()) {
+                put(segment, transaction.getPlayerId(), entry == null ? null : entry.username(),
+                        transaction.getBalanceAfter(), System.nanoTime() + ttlNanos);
+            } else {
+                remove(segment, transaction.getPlayerId());
+            }
+        }
+    }
+
+    private Segment segmentOf(Long playerId) {
+        int hash = playerId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private void put(Segment segment, Long playerId, String username, long balance, long expiresAt) {
+        segment.put(playerId, new Entry(username, balance, expiresAt));
+        if (username != null) {
+            playerIds.put(username, playerId);
+        }
+    }
+
+    private void remove(Segment segment, Long playerId) {
+        forget(playerId, segment.remove(playerId));
+    }
+
+    /**
+     * Drops the username of an entry that left its segment, unless the name already points at another player.
+     */
+    private void forget(Long playerId, Entry entry) {
+        if (entry != null && entry.username() != null) {
+            playerIds.remove(entry.username(), playerId);
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private double hitRatio() {
+        double reads = hits.doubleValue() + misses.doubleValue();
+        return reads == 0 ? 0 : hits.doubleValue() / reads;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * One segment of the cache, guarded by its own monitor, evicting its least recently used player beyond its share
+     * of the maximum size.
+     */
+    private final class Segment extends LinkedHashMap<Long, Entry> {
+
+        private final int maximumSize;
+
+        private Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() <= maximumSize) {
+                return false;
+            }
+            forget(eldest.getKey(), eldest.getValue());
+            sizeEvictions.increment();
+            return true;
+        }
+    }
+
+    /**
+     * A cached balance; the username is {@code null} until the player is loaded.
+     */
+    private record Entry(String username, long balance, long expiresAt) {
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.core.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ReplicaRoutingDataSource} class hands out connections of the primary pool, except inside read-only
+ * transactions, which get a connection of one of the replica pools. Replicas take turns.
+ *
+ * <p>A replica gets reads only while its last lag check succeeded and found it less than {@code maxLag} behind the
+ * primary. When its pool fails to hand out a connection, it is skipped until the next successful check and the read
+ * goes to the next replica, or finally to the primary. A read that fails after it got its connection is not retried.
+ *
+ * <p>The transaction is known to be read-only only after it has begun, so this data source has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /**
+     * Seconds since the last replayed transaction, or zero when everything received has been replayed or the
+     * database is not a standby.
+     */
+    private static final String REPLAY_LAG = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService lagMonitor;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Measures the lag of the replicas once, then again every {@code interval}.
+     *
+     * @param interval the time between two lag checks
+     */
+    public void start(Duration interval) {
+        checkLag();
+        lagMonitor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "replica-lag-monitor"));
+        lagMonitor.scheduleWithFixedDelay(this::checkLag, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    /**
+     * Routes like {@link #getConnection()}. The Hikari pools hand out connections of their configured user only and
+     * refuse this with a {@link SQLFeatureNotSupportedException}, which is passed on instead of taken for the replica
+     * being down.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (!isReadOnlyTransaction()) {
+            return connector.connect(primary);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return connector.connect(replica.dataSource);
+            } catch (SQLFeatureNotSupportedException e) {
+                throw e;
+            } catch (SQLException e) {
+                log.warn("Replica {} is unavailable, skipping it until the next lag check: {}",
+                        replica.dataSource.getPoolName(), e.getMessage());
+                replica.available = false;
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    @Override
+    public void close() {
+        if (lagMonitor != null) {
+            lagMonitor.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static boolean isReadOnlyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(REPLAY_LAG)) {
+                rs.next();
+                Duration lag = Duration.ofMillis((long) (rs.getDouble(1) * 1000));
+                replica.available = lag.compareTo(maxLag) <= 0;
+                if (wasAvailable && !replica.available) {
+                    log.warn("Replica {} is {} behind, sending its reads to the others",
+                            replica.dataSource.getPoolName(), lag);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.available = false;
+                if (wasAvailable) {
+                    log.warn("Lag check of replica {} failed: {}", replica.dataSource.getPoolName(), e.getMessage());
+                }
+            }
+            if (!wasAvailable && replica.available) {
+                log.info("Replica {} takes reads", replica.dataSource.getPoolName());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean available;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
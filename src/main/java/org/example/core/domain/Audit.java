@@ -25,7 +25,8 @@ public class Audit {
      * The unique identifier of the audit record.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audits_seq")
+    @SequenceGenerator(name = "audits_seq", schema = "wallet", sequenceName = "audits_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
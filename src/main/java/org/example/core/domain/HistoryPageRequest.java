@@ -0,0 +1,33 @@
+package org.example.core.domain;
+
+import org.example.core.domain.types.TransactionType;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A request for one page of a player's transaction history, newest first, with its cursor decoded. The database part
+ * of the page is read with one extra row to tell whether another page follows.
+ *
+ * @param playerId        the player id
+ * @param beforeId        the id to continue below, or {@code null} for the first page
+ * @param beforeCreatedAt the recording time of the transaction with {@code beforeId}, which no earlier transaction of
+ *                        the player exceeds, or {@code null} if the cursor does not carry it
+ * @param type            the transaction type to keep, or {@code null} for all
+ * @param from            the earliest recording time to keep, inclusive, or {@code null}
+ * @param to              the latest recording time to keep, exclusive, or {@code null}
+ * @param pageSize        the number of transactions of a full page
+ */
+public record HistoryPageRequest(Long playerId, Long beforeId, Instant beforeCreatedAt, TransactionType type,
+                                 Instant from, Instant to, int pageSize) {
+
+    /**
+     * Tells whether the transactions read from the database fill the page, so that the archive is not needed.
+     *
+     * @param transactions the transactions read from the database
+     * @return whether another page follows them
+     */
+    public boolean isFilledBy(List<?> transactions) {
+        return transactions.size() > pageSize;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.core.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.core.domain.types.HoldStatus;
+import org.example.util.UuidConverter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The `Hold` class represents funds reserved against a player's balance, for example for a bet whose outcome is not
+ * known yet. While the hold is active its amount is not available to debits; it is later captured as a debit,
+ * released, or released automatically when it expires.
+ */
+@Data
+@Builder
+@Entity
+@Table(name = "holds", schema = "wallet")
+@AllArgsConstructor
+@NoArgsConstructor
+public class Hold {
+    /**
+     * The unique identifier of the hold.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The client-chosen identifier of the hold.
+     */
+    @Convert(converter = UuidConverter.class)
+    @Column(name = "hold_identifier", unique = true)
+    private UUID holdIdentifier;
+
+    /**
+     * The unique identifier of the player whose funds are held.
+     */
+    @Column(name = "player_id")
+    private Long playerId;
+
+    /**
+     * The held amount, in minor units of the wallet currency.
+     */
+    @Column(name = "amount")
+    private long amount;
+
+    /**
+     * The debited amount of a captured hold, in minor units of the wallet currency.
+     */
+    @Column(name = "captured_amount")
+    private Long capturedAmount;
+
+    @NotNull
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+
+    /**
+     * The moment an active hold is released automatically.
+     */
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+}
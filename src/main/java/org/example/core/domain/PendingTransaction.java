@@ -0,0 +1,87 @@
+package org.example.core.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.core.domain.types.PendingTransactionStatus;
+import org.example.core.domain.types.TransactionType;
+import org.example.util.UuidConverter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The `PendingTransaction` class represents a credit or debit submitted asynchronously. It waits in the queue table
+ * until a worker claims it, and keeps the outcome afterwards so that the submitter can poll for it.
+ */
+@Data
+@Builder
+@Entity
+@Table(name = "pending_transactions", schema = "wallet")
+@AllArgsConstructor
+@NoArgsConstructor
+public class PendingTransaction {
+    /**
+     * The unique identifier of the queue entry.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The identifier the transaction is recorded under once it is applied.
+     */
+    @Convert(converter = UuidConverter.class)
+    @Column(name = "transaction_identifier", unique = true)
+    private UUID transactionIdentifier;
+
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @NotNull
+    @Column(name = "type")
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    /**
+     * The amount of the transaction, in minor units of the wallet currency.
+     */
+    @Column(name = "amount")
+    private long amount;
+
+    @NotNull
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private PendingTransactionStatus status;
+
+    /**
+     * How many times a worker has claimed the transaction.
+     */
+    @Column(name = "attempts")
+    private int attempts;
+
+    /**
+     * The player's balance after a completed transaction, in minor units of the wallet currency.
+     */
+    @Column(name = "balance_after")
+    private Long balanceAfter;
+
+    /**
+     * Why a failed transaction was rejected.
+     */
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    /**
+     * When a worker last claimed the transaction.
+     */
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+}
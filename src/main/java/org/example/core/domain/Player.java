@@ -9,8 +9,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.example.core.domain.types.PlayerRole;
 
-import java.math.BigDecimal;
-
 /**
  * The `Player` class represents a player in the system.
  * It contains information about the player's details, including their unique identifier,
@@ -27,7 +25,8 @@ public class Player {
      * The unique identifier of the player.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "players_seq")
+    @SequenceGenerator(name = "players_seq", schema = "wallet", sequenceName = "players_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -50,10 +49,23 @@ public class Player {
     private PlayerRole playerRole;
 
     /**
-     * The current balance of the player, represented as a decimal value.
+     * The current balance of the player, in minor units of the wallet currency.
      */
     @Column(name = "balance")
-    private BigDecimal balance = BigDecimal.ZERO;
+    private long balance;
+
+    /**
+     * The part of the balance reserved by active holds, in minor units; debits may only use the rest.
+     */
+    @Column(name = "reserved")
+    private long reserved;
+
+    /**
+     * The version of the player row, incremented on every balance change.
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
 
     public Player(String username, String password) {
         this.username = username;
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import org.example.core.domain.types.TransactionType;
 import org.example.util.UuidConverter;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -25,7 +25,8 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Transaction {
     /**
-     * The unique identifier of the transaction.
+     * The unique identifier of the transaction. It is assigned by the column default when the row is inserted, after
+     * the player is locked, so the ids of one player follow commit order; ids pooled ahead by Hibernate would not.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,16 +42,16 @@ public class Transaction {
     private TransactionType type;
 
     /**
-     * The monetary amount associated with the transaction.
+     * The monetary amount associated with the transaction, in minor units of the wallet currency.
      */
     @Column(name = "amount")
-    private BigDecimal amount;
+    private long amount;
 
     @Column(name = "balance_before")
-    private BigDecimal balanceBefore;
+    private long balanceBefore;
 
     @Column(name = "balance_after")
-    private BigDecimal balanceAfter;
+    private long balanceAfter;
 
     @Convert(converter = UuidConverter.class)
     @Column(name = "transaction_identifier", unique = true)
@@ -61,5 +62,11 @@ public class Transaction {
      */
     @Column(name = "player_id")
     private Long playerId;
+
+    /**
+     * The time the transaction was recorded, assigned by the database.
+     */
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
 }
 
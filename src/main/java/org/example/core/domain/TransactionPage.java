@@ -0,0 +1,14 @@
+package org.example.core.domain;
+
+import org.example.repository.projection.TransactionView;
+
+import java.util.List;
+
+/**
+ * One page of a player's transaction history, newest first.
+ *
+ * @param transactions the transactions of the page
+ * @param nextCursor   the opaque cursor of the following page, or {@code null} if this is the last page
+ */
+public record TransactionPage(List<TransactionView> transactions, String nextCursor) {
+}
@@ -0,0 +1,31 @@
+package org.example.core.domain.types;
+
+/**
+ * The `BatchEntryStatus` enumeration defines the possible outcomes of a single entry in a transaction batch.
+ */
+public enum BatchEntryStatus {
+    /**
+     * Represents an entry that was applied to the player's balance.
+     */
+    OK,
+
+    /**
+     * Represents an entry whose transaction identifier had already been used.
+     */
+    DUPLICATE,
+
+    /**
+     * Represents a debit entry that was rejected because the balance was too low.
+     */
+    INSUFFICIENT_FUNDS,
+
+    /**
+     * Represents an entry whose amount was not positive, had too many decimal places or was too large.
+     */
+    INVALID_AMOUNT,
+
+    /**
+     * Represents a credit entry that was rejected because the balance would overflow.
+     */
+    BALANCE_LIMIT_EXCEEDED
+}
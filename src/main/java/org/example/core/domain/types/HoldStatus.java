@@ -0,0 +1,26 @@
+package org.example.core.domain.types;
+
+/**
+ * The `HoldStatus` enumeration defines the states of a funds hold. Only an active hold reserves funds.
+ */
+public enum HoldStatus {
+    /**
+     * Represents a hold whose amount is reserved against the player's balance.
+     */
+    ACTIVE,
+
+    /**
+     * Represents a hold that was turned into a debit, fully or partially.
+     */
+    CAPTURED,
+
+    /**
+     * Represents a hold that was released without a debit.
+     */
+    RELEASED,
+
+    /**
+     * Represents a hold that was released because it was neither captured nor released before its expiry.
+     */
+    EXPIRED
+}
@@ -0,0 +1,26 @@
+package org.example.core.domain.types;
+
+/**
+ * The `PendingTransactionStatus` enumeration defines the states of an asynchronously submitted transaction.
+ */
+public enum PendingTransactionStatus {
+    /**
+     * Represents a transaction waiting to be claimed by a worker.
+     */
+    PENDING,
+
+    /**
+     * Represents a transaction claimed by a worker and being applied.
+     */
+    PROCESSING,
+
+    /**
+     * Represents a transaction that was applied to the player's balance.
+     */
+    COMPLETED,
+
+    /**
+     * Represents a transaction that was rejected, for example because the balance was too low.
+     */
+    FAILED
+}
@@ -0,0 +1,63 @@
+package org.example.core.idempotency;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lock-free bloom filter of transaction identifiers. It never reports a false negative for an added
+ * identifier; it reports a false positive with roughly the configured probability once it holds its expected number
+ * of identifiers.
+ */
+class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, bits);
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    void add(UUID identifier) {
+        long hash1 = mix(identifier.getMostSignificantBits() ^ mix(identifier.getLeastSignificantBits()));
+        long hash2 = mix(identifier.getLeastSignificantBits() ^ hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(UUID identifier) {
+        long hash1 = mix(identifier.getMostSignificantBits() ^ mix(identifier.getLeastSignificantBits()));
+        long hash2 = mix(identifier.getLeastSignificantBits() ^ hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, so that client-chosen identifiers with little entropy still spread over the bits.
+     * Both hashes depend on both halves of the identifier: identifiers that share one half would otherwise all set
+     * the first bit of their probe sequence.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.core.idempotency;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.exception.TransactionAlreadyExistsException;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.repository.TransactionRepository;
+import org.example.сonfiguration.IdempotencyProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code TransactionIdentifierFilter} class answers "has this transaction identifier been used?" mostly without
+ * the database. It keeps a bloom filter of recent identifiers and a bounded cache of the most recent transactions.
+ *
+ * <p>The bloom filter has two generations of {@code app.wallet.idempotency.expected-insertions} identifiers each. When
+ * the current one is full, it becomes the previous one and the oldest generation is dropped, so memory stays bounded.
+ * On startup the filter is warmed with the most recent identifiers from the database. A negative answer therefore
+ * means the identifier was not used recently by this instance; the primary key of {@code transaction_identifiers}
+ * still guards against older or foreign identifiers.
+ *
+ * <p>A replayed request, one with an identifier that was already recorded for the same player, type and amount,
+ * gets the originally recorded transaction back. Reusing an identifier for a different transaction is an error.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionIdentifierFilter {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger currentInsertions = new AtomicInteger();
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private Map<UUID, Transaction> recent;
+
+    @PostConstruct
+    void warmUp() {
+        current = newGeneration();
+        previous = newGeneration();
+
+        int recentCacheSize = idempotencyProperties.getRecentCacheSize();
+        recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Transaction> eldest) {
+                return size() > recentCacheSize;
+            }
+        });
+
+        List<UUID> identifiers = transactionJdbcRepository.findRecentIdentifiers(
+                idempotencyProperties.getExpectedInsertions());
+        identifiers.forEach(this::remember);
+        log.info("Transaction identifier filter warmed with {} identifiers", identifiers.size());
+    }
+
+    /**
+     * Remembers a transaction once the surrounding database transaction commits, or at once outside of one.
+     *
+     * @param transaction the recorded transaction
+     */
+    public void record(Transaction transaction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(transaction);
+                }
+            });
+        } else {
+            remember(transaction);
+        }
+    }
+
+    /**
+     * Returns a recently recorded transaction without touching the database.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction, or empty if it is not among the recent ones
+     */
+    public Optional<Transaction> findRecent(UUID transactionIdentifier) {
+        return Optional.ofNullable(recent.get(transactionIdentifier));
+    }
+
+    /**
+     * Returns the recorded transaction with the identifier. The database is only queried when the bloom filter
+     * reports a possible hit.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction, or empty if the identifier was not used recently
+     */
+    public Optional<Transaction> find(UUID transactionIdentifier) {
+        Transaction cached = recent.get(transactionIdentifier);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (!current.mightContain(transactionIdentifier) && !previous.mightContain(transactionIdentifier)) {
+            return Optional.empty();
+        }
+        return findOnPrimary(transactionIdentifier);
+    }
+
+    /**
+     * Returns the original transaction for an identifier the database has reported as already used.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the original transaction
+     */
+    public Transaction findOriginal(UUID transactionIdentifier) {
+        return findRecent(transactionIdentifier)
+                .or(() -> findOnPrimary(transactionIdentifier))
+                .orElseThrow(() -> transactionAlreadyExists(transactionIdentifier));
+    }
+
+    /**
+     * Both lookups decide how a write is answered, so they run in a read-write transaction, which is never routed to
+     * a read replica that may not have the transaction yet.
+     */
+    private Optional<Transaction> findOnPrimary(UUID transactionIdentifier) {
+        return transactionTemplate.execute(status -> transactionRepository.findByTransactionIdentifier(transactionIdentifier));
+    }
+
+    /**
+     * Returns the original transaction if the request replays it, or fails if the identifier was used for another one.
+     *
+     * @param original the originally recorded transaction
+     * @param playerId the player id of the request
+     * @param type     the transaction type of the request
+     * @param amount   the amount of the request in minor units
+     * @return the original transaction
+     */
+    public Transaction replay(Transaction original, Long playerId, TransactionType type, long amount) {
+        if (Objects.equals(original.getPlayerId(), playerId)
+            && original.getType() == type
+            && original.getAmount() == amount) {
+            return original;
+        }
+        throw transactionAlreadyExists(original.getTransactionIdentifier());
+    }
+
+    /**
+     * Creates the exception for an identifier that cannot be used again.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the exception
+     */
+    public TransactionAlreadyExistsException transactionAlreadyExists(UUID transactionIdentifier) {
+        return new TransactionAlreadyExistsException("Transaction with ID " + transactionIdentifier + " already exists.");
+    }
+
+    private void remember(Transaction transaction) {
+        remember(transaction.getTransactionIdentifier());
+        recent.put(transaction.getTransactionIdentifier(), transaction);
+    }
+
+    private void remember(UUID transactionIdentifier) {
+        current.add(transactionIdentifier);
+        if (currentInsertions.incrementAndGet() >= idempotencyProperties.getExpectedInsertions()) {
+            rotate();
+        }
+    }
+
+    private synchronized void rotate() {
+        if (currentInsertions.get() >= idempotencyProperties.getExpectedInsertions()) {
+            previous = current;
+            current = newGeneration();
+            currentInsertions.set(0);
+        }
+    }
+
+    private BloomFilter newGeneration() {
+        return new BloomFilter(
+                idempotencyProperties.getExpectedInsertions(),
+                idempotencyProperties.getFalsePositiveProbability());
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.core.journal;
+
+/**
+ * When the records appended to a {@link TransactionJournal} are forced to the storage device.
+ */
+public enum FsyncPolicy {
+    /**
+     * After every record. An acknowledged entry survives a power loss.
+     */
+    ALWAYS,
+
+    /**
+     * Once per group of records appended together. An acknowledged entry survives a power loss.
+     */
+    BATCH,
+
+    /**
+     * Never explicitly; the operating system writes the pages back on its own. An acknowledged entry survives a crash
+     * of the process, but not of the machine.
+     */
+    NONE
+}
@@ -0,0 +1,252 @@
+package org.example.core.journal;
+
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead journal of accepted transactions, kept in memory-mapped segment files of a fixed size.
+ *
+ * <p>Every record has a fixed length and starts with the CRC32 of its payload. The unwritten tail of a segment is
+ * zero-filled and never passes the check, so reading a segment stops at its first invalid record, whether that is
+ * the end of the written part or a record torn by a crash.
+ *
+ * <p>A journal has a single writer. The position of the last record written to the database is stored in a checkpoint
+ * file by {@link #checkpoint(long)}, which may be called from another thread; segments before it are deleted.
+ */
+public class TransactionJournal implements Closeable {
+
+    private static final int PAYLOAD_SIZE = 1 + 4 * Long.BYTES + 2 * Long.BYTES;
+    private static final int RECORD_SIZE = Integer.BYTES + PAYLOAD_SIZE;
+    private static final Pattern SEGMENT = Pattern.compile("(.+)-(\\d{20})\\.journal");
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final Path directory;
+    private final String name;
+    private final long segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_SIZE);
+
+    private long segment = -1;
+    private MappedByteBuffer buffer;
+    private int unsyncedFrom;
+
+    /**
+     * Opens an empty journal. Existing segments of the same name must have been recovered and deleted before.
+     *
+     * @param directory   the directory of the segment files
+     * @param name        the name of the journal, unique within the directory
+     * @param segmentSize the size of a segment file in bytes, at most 2 GB
+     * @param fsyncPolicy when appended records are forced to the storage device
+     */
+    public TransactionJournal(Path directory, String name, long segmentSize, FsyncPolicy fsyncPolicy) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.name = name;
+        long size = Math.min(segmentSize, Integer.MAX_VALUE);
+        this.segmentSize = Math.max(RECORD_SIZE, size - size % RECORD_SIZE);
+        this.fsyncPolicy = fsyncPolicy;
+        roll();
+    }
+
+    /**
+     * Appends a record of the transaction.
+     *
+     * @param transaction the accepted transaction
+     * @return the position just after the record, to be passed to {@link #checkpoint(long)} once it is flushed
+     */
+    public long append(Transaction transaction) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            sync();
+            roll();
+        }
+
+        payload.clear();
+        payload.put((byte) transaction.getType().ordinal())
+                .putLong(transaction.getPlayerId())
+                .putLong(transaction.getAmount())
+                .putLong(transaction.getBalanceBefore())
+                .putLong(transaction.getBalanceAfter())
+                .putLong(transaction.getTransactionIdentifier().getMostSignificantBits())
+                .putLong(transaction.getTransactionIdentifier().getLeastSignificantBits())
+                .flip();
+        crc.reset();
+        crc.update(payload);
+        payload.flip();
+        buffer.putInt((int) crc.getValue()).put(payload);
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            sync();
+        }
+        return segment << 32 | buffer.position();
+    }
+
+    /**
+     * Forces the records appended since the last call to the storage device, unless the policy is
+     * {@link FsyncPolicy#NONE}.
+     */
+    public void sync() {
+        int position = buffer.position();
+        if (fsyncPolicy != FsyncPolicy.NONE && position > unsyncedFrom) {
+            buffer.force(unsyncedFrom, position - unsyncedFrom);
+        }
+        unsyncedFrom = position;
+    }
+
+    /**
+     * Records that every record up to the position has been written to the database, and deletes the segments
+     * that hold only such records.
+     *
+     * @param position a position returned by {@link #append(Transaction)}
+     */
+    public void checkpoint(long position) throws IOException {
+        Path checkpoint = directory.resolve(name + CHECKPOINT_SUFFIX);
+        Path temporary = directory.resolve(name + CHECKPOINT_SUFFIX + ".tmp");
+        Files.write(temporary, ByteBuffer.allocate(Long.BYTES).putLong(position).array());
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        long flushedSegment = position >>> 32;
+        for (Path file : segments(directory, name)) {
+            if (segmentOf(file) < flushedSegment) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        sync();
+        buffer = null;
+    }
+
+    private void roll() throws IOException {
+        segment++;
+        Path file = directory.resolve(String.format("%s-%020d.journal", name, segment));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        unsyncedFrom = 0;
+    }
+
+    /**
+     * Reads the records of all journals in the directory that are not covered by their checkpoint, each journal
+     * in the order it was written.
+     *
+     * @param directory the directory of the segment files
+     * @return the transactions that may not have been written to the database
+     */
+    public static List<Transaction> recover(Path directory) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return transactions;
+        }
+        for (String name : names(directory)) {
+            long checkpoint = readCheckpoint(directory, name);
+            for (Path file : segments(directory, name)) {
+                long segment = segmentOf(file);
+                if (segment >= checkpoint >>> 32) {
+                    int from = segment == checkpoint >>> 32 ? (int) checkpoint : 0;
+                    readSegment(file, from, transactions);
+                }
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Deletes all segments and checkpoints in the directory, once their records are known to be in the database.
+     *
+     * @param directory the directory of the segment files
+     */
+    public static void deleteAll(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String fileName = file.getFileName().toString();
+                if (SEGMENT.matcher(fileName).matches() || fileName.endsWith(CHECKPOINT_SUFFIX)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static void readSegment(Path file, int from, List<Transaction> transactions) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            segment.position(from);
+            while (segment.remaining() >= RECORD_SIZE) {
+                int checksum = segment.getInt();
+                ByteBuffer record = segment.slice(segment.position(), PAYLOAD_SIZE);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return;
+                }
+                transactions.add(Transaction.builder()
+                        .type(TransactionType.values()[record.get()])
+                        .playerId(record.getLong())
+                        .amount(record.getLong())
+                        .balanceBefore(record.getLong())
+                        .balanceAfter(record.getLong())
+                        .transactionIdentifier(new UUID(record.getLong(), record.getLong()))
+                        .build());
+                segment.position(segment.position() + PAYLOAD_SIZE);
+            }
+        }
+    }
+
+    private static long readCheckpoint(Path directory, String name) throws IOException {
+        Path checkpoint = directory.resolve(name + CHECKPOINT_SUFFIX);
+        return Files.exists(checkpoint) ? ByteBuffer.wrap(Files.readAllBytes(checkpoint)).getLong() : 0L;
+    }
+
+    private static List<String> names(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> matcher.group(1))
+                    .distinct()
+                    .toList();
+        }
+    }
+
+    private static List<Path> segments(Path directory, String name) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+                        return matcher.matches() && matcher.group(1).equals(name);
+                    })
+                    .sorted(Comparator.comparingLong(TransactionJournal::segmentOf))
+                    .toList();
+        }
+    }
+
+    private static long segmentOf(Path file) {
+        Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a journal segment: " + file);
+        }
+        return Long.parseLong(matcher.group(2));
+    }
+}
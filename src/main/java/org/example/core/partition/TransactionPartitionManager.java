@@ -0,0 +1,125 @@
+package org.example.core.partition;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.TransactionPartitionRepository;
+import org.example.сonfiguration.LedgerProperties;
+import org.example.сonfiguration.PartitionProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code TransactionPartitionManager} class keeps the monthly partitions of {@code wallet.transactions} in shape.
+ * Every {@code app.wallet.partitions.check-interval} it creates the partitions of the current month and the
+ * {@code app.wallet.partitions.months-ahead} following ones, and detaches the partitions that have fallen out of
+ * {@code app.wallet.partitions.retention-months}.
+ *
+ * <p>Partitions are named {@code transactions_yYYYYmMM} and cover one UTC month of {@code created_at}. A detached
+ * partition stays in the {@code wallet} schema as a standalone table until the
+ * {@link org.example.core.archive.TransactionArchiver} moves it out; the identifiers of its transactions stay in
+ * {@code transaction_identifiers}, so they cannot be reused, and the daily rollups keep counting them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionManager {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'transactions_y'yyyy'm'MM");
+
+    private final TransactionPartitionRepository transactionPartitionRepository;
+    private final PartitionProperties partitionProperties;
+    private final LedgerProperties ledgerProperties;
+    private final Clock clock = Clock.systemUTC();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The event-sourced ledger folds balances from the whole log: detaching a partition would change the balance of
+     * every player with transactions past their snapshot in it, and every later snapshot rebuild.
+     */
+    @PostConstruct
+    void checkRetention() {
+        if (partitionProperties.getRetentionMonths() > 0
+                && ledgerProperties.getMode() == LedgerProperties.Mode.EVENT_SOURCED) {
+            throw new IllegalStateException(
+                    "app.wallet.partitions.retention-months cannot be used with the event-sourced ledger");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!partitionProperties.isEnabled()) {
+            return;
+        }
+        long interval = partitionProperties.getCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "transaction-partition-manager"));
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the missing partitions up to {@code months-ahead} months from now and detaches the expired ones.
+     */
+    public void maintain() {
+        YearMonth now = YearMonth.now(clock);
+        for (int i = 0; i <= partitionProperties.getMonthsAhead(); i++) {
+            YearMonth month = now.plusMonths(i);
+            transactionPartitionRepository.createPartition(partitionName(month),
+                    month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC),
+                    month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        }
+
+        if (partitionProperties.getRetentionMonths() <= 0) {
+            return;
+        }
+        YearMonth oldestRetained = now.minusMonths(partitionProperties.getRetentionMonths());
+        List<String> attached = transactionPartitionRepository.findAttachedPartitions();
+        for (String name : attached) {
+            Optional<YearMonth> month = partitionMonth(name);
+            if (month.isPresent() && month.get().isBefore(oldestRetained)) {
+                transactionPartitionRepository.detachPartition(name);
+                log.info("Detached transaction partition {}", name);
+            }
+        }
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.error("Failed to maintain the transaction partitions", e);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month);
+    }
+
+    private static Optional<YearMonth> partitionMonth(String name) {
+        try {
+            return Optional.of(YearMonth.parse(name, PARTITION_NAME));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
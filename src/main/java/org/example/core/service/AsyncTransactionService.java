@@ -0,0 +1,33 @@
+package org.example.core.service;
+
+import org.example.core.domain.PendingTransaction;
+import org.example.core.domain.types.TransactionType;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The interface Async transaction service. Credits and debits are queued and applied later by workers, and their
+ * outcome is polled by the transaction identifier.
+ */
+public interface AsyncTransactionService {
+
+    /**
+     * Queues a credit or debit. Submitting an already queued transaction again returns the queued one.
+     *
+     * @param playerId              the player id
+     * @param type                  the transaction type
+     * @param amount                the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the queued transaction
+     */
+    PendingTransaction submit(Long playerId, TransactionType type, long amount, UUID transactionIdentifier);
+
+    /**
+     * Returns the state of a submitted transaction. A transaction applied synchronously is reported as completed.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the state of the transaction, or empty if it is unknown
+     */
+    Optional<PendingTransaction> status(UUID transactionIdentifier);
+}
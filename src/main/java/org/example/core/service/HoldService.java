@@ -0,0 +1,61 @@
+package org.example.core.service;
+
+import org.example.core.domain.Hold;
+import org.example.core.domain.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * The interface Hold service. Holds reserve funds against a player's available balance until they are captured,
+ * released or expire.
+ */
+public interface HoldService {
+
+    /**
+     * The condition under which holds are available: the write paths that check debits against the player row.
+     */
+    String ENABLED = "'${app.wallet.ledger.mode:atomic}'.toLowerCase().matches('atomic|optimistic')";
+
+    /**
+     * Reserves the amount against the player's available balance. Replaying an already placed hold returns it.
+     *
+     * @param playerId       the player id
+     * @param amount         the amount in minor units
+     * @param ttl            how long the hold lives before it expires, or {@code null} for the default
+     * @param holdIdentifier the hold identifier
+     * @return the placed hold
+     */
+    Hold place(Long playerId, long amount, Duration ttl, UUID holdIdentifier);
+
+    /**
+     * Debits the player by the amount of the hold, or a part of it, and releases the rest. The debit is recorded under
+     * {@link #captureIdentifier(UUID)}. Replaying an already captured hold returns the original debit.
+     *
+     * @param playerId       the player id
+     * @param holdIdentifier the hold identifier
+     * @param amount         the captured amount in minor units, or {@code null} for the whole hold
+     * @return the debit transaction
+     */
+    Transaction capture(Long playerId, UUID holdIdentifier, Long amount);
+
+    /**
+     * Releases the hold without a debit. Releasing a hold that is no longer active returns it unchanged.
+     *
+     * @param playerId       the player id
+     * @param holdIdentifier the hold identifier
+     * @return the hold
+     */
+    Hold release(Long playerId, UUID holdIdentifier);
+
+    /**
+     * Derives the identifier of the debit of a captured hold from the identifier of the hold.
+     *
+     * @param holdIdentifier the hold identifier
+     * @return the transaction identifier of the debit
+     */
+    static UUID captureIdentifier(UUID holdIdentifier) {
+        return UUID.nameUUIDFromBytes(("hold-capture:" + holdIdentifier).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.core.service;
+
+/**
+ * The interface Ledger snapshot service. Rebuilds the balance snapshots of the event-sourced ledger from the
+ * transaction log.
+ */
+public interface LedgerSnapshotService {
+
+    /**
+     * Recomputes the player's balance from the whole transaction log and stores it as the new snapshot.
+     *
+     * @param playerId the player id
+     * @return the rebuilt balance in minor units
+     */
+    long rebuild(Long playerId);
+
+    /**
+     * Rebuilds the snapshots of all players, several players at a time.
+     *
+     * @return the number of rebuilt players
+     */
+    int rebuildAll();
+}
@@ -0,0 +1,23 @@
+package org.example.core.service;
+
+import org.example.core.domain.types.TransactionType;
+import org.example.repository.projection.LedgerEntry;
+
+import java.util.UUID;
+
+/**
+ * The interface Ledger writer. Implementations own the database transaction in which a ledger entry is committed.
+ */
+public interface LedgerWriter {
+
+    /**
+     * Applies a credit or debit entry and returns once it is committed.
+     *
+     * @param playerId              the player id
+     * @param type                  the transaction type
+     * @param amount                the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the outcome of the entry
+     */
+    LedgerEntry write(Long playerId, TransactionType type, long amount, UUID transactionIdentifier);
+}
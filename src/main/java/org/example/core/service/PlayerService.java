@@ -1,10 +1,9 @@
 package org.example.core.service;
 
 import org.example.core.domain.Player;
+import org.example.repository.projection.PlayerSummary;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-
 /**
  * The interface Player service.
  */
@@ -14,17 +13,17 @@ public interface PlayerService {
      * Get player's balance.
      *
      * @param id the id
-     * @return the player balance
+     * @return the player balance in minor units
      */
-    BigDecimal getPlayerBalance(Long id);
+    long getPlayerBalance(Long id);
 
     /**
      * Update balance boolean.
      *
      * @param id      the id
-     * @param balance the balance
+     * @param balance the balance in minor units
      */
-    void updateBalance(Long id, BigDecimal balance);
+    void updateBalance(Long id, long balance);
 
     /**
      * Get player by login.
@@ -34,4 +33,20 @@ public interface PlayerService {
      */
     Player findByUsername(String username);
 
+    /**
+     * Get the public part of the player, with the current balance, without loading the entity.
+     *
+     * @param username the username
+     * @return the player summary
+     */
+    PlayerSummary getPlayerSummary(String username);
+
+    /**
+     * Get the id of the player.
+     *
+     * @param username the username
+     * @return the player id
+     */
+    Long getPlayerId(String username);
+
 }
@@ -0,0 +1,59 @@
+package org.example.core.service;
+
+import org.example.core.domain.Player;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.TransactionPage;
+import org.example.core.domain.types.TransactionType;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The interface Reactive transaction service. It applies the rules of the atomic {@link TransactionService} without
+ * blocking the calling thread.
+ */
+public interface ReactiveTransactionService {
+
+    /**
+     * Find player by username.
+     *
+     * @param username the username
+     * @return the player, or an error if there is no such player
+     */
+    Mono<Player> findPlayer(String username);
+
+    /**
+     * Gets one page of the player's history, newest first, as {@link TransactionHistoryService#getPlayerHistory} does.
+     *
+     * @param playerId the player id
+     * @param cursor   the cursor of the previous page, or {@code null} for the first page
+     * @param limit    the page size, or {@code null} for the default
+     * @param type     the transaction type to keep, or {@code null} for all
+     * @param from     the earliest recording time to keep, inclusive, or {@code null}
+     * @param to       the latest recording time to keep, exclusive, or {@code null}
+     * @return the page of transactions with the cursor of the following page
+     */
+    Mono<TransactionPage> getPlayerHistory(Long playerId, String cursor, Integer limit,
+                                           TransactionType type, Instant from, Instant to);
+
+    /**
+     * Credit transaction.
+     *
+     * @param playerId              the player id
+     * @param amount                the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction
+     */
+    Mono<Transaction> credit(Long playerId, long amount, UUID transactionIdentifier);
+
+    /**
+     * Debit transaction.
+     *
+     * @param playerId              the player id
+     * @param amount                the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction
+     */
+    Mono<Transaction> debit(Long playerId, long amount, UUID transactionIdentifier);
+}
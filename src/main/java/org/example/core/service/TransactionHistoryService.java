@@ -0,0 +1,76 @@
+package org.example.core.service;
+
+import org.example.core.domain.HistoryPageRequest;
+import org.example.core.domain.TransactionPage;
+import org.example.core.domain.types.TransactionType;
+import org.example.repository.projection.StatementTotal;
+import org.example.repository.projection.TransactionView;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The interface Transaction history service.
+ */
+public interface TransactionHistoryService {
+
+    /**
+     * Gets one page of the player's transactions history, newest first.
+     *
+     * @param playerId the player id
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit    the page size, or {@code null} for the default; capped at the configured maximum
+     * @param type     the transaction type to keep, or {@code null} for all
+     * @param from     the earliest recording time to keep, inclusive, or {@code null}
+     * @param to       the latest recording time to keep, exclusive, or {@code null}
+     * @return the page
+     */
+    TransactionPage getPlayerHistory(Long playerId, String cursor, Integer limit,
+                                     TransactionType type, Instant from, Instant to);
+
+    /**
+     * Checks the paging parameters of a history request and decodes its cursor, for callers that read the database
+     * part of the page themselves, such as the reactive API.
+     *
+     * @param playerId the player id
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit    the page size, or {@code null} for the default; capped at the configured maximum
+     * @param type     the transaction type to keep, or {@code null} for all
+     * @param from     the earliest recording time to keep, inclusive, or {@code null}
+     * @param to       the latest recording time to keep, exclusive, or {@code null}
+     * @return the page request
+     */
+    HistoryPageRequest toPageRequest(Long playerId, String cursor, Integer limit,
+                                     TransactionType type, Instant from, Instant to);
+
+    /**
+     * Completes a page from the transactions read from the database for it. Unless they fill the page, it continues
+     * into the archive, whose files are read with blocking I/O.
+     *
+     * @param request      the page request
+     * @param databasePage the transactions read from the database, newest first
+     * @return the page
+     */
+    TransactionPage completePage(HistoryPageRequest request, List<TransactionView> databasePage);
+
+    /**
+     * Hands all of the player's transactions to the consumer, oldest first, without loading them all at once.
+     *
+     * @param playerId the player id
+     * @param consumer the consumer of the transactions
+     */
+    void exportPlayerHistory(Long playerId, Consumer<TransactionView> consumer);
+
+    /**
+     * Gets the number and the sum of the player's credits and debits over a range of days.
+     *
+     * @param playerId the player id
+     * @param from     the first day, inclusive, in UTC
+     * @param to       the last day, inclusive, in UTC
+     * @return the totals by transaction type; types without transactions in the range count zero
+     */
+    Map<TransactionType, StatementTotal> getStatement(Long playerId, LocalDate from, LocalDate to);
+}
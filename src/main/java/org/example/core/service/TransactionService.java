@@ -1,9 +1,18 @@
 package org.example.core.service;
 
 import org.example.core.domain.Transaction;
+import org.example.core.domain.types.BatchEntryStatus;
+import org.example.core.domain.types.TransactionType;
+import org.example.dto.TransactionBatchEntry;
+import org.example.dto.TransactionBatchResult;
+import org.example.exception.TransactionAlreadyExistsException;
+import org.example.exception.TransactionOperationException;
+import org.example.util.Money;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 public interface TransactionService {
@@ -17,21 +26,83 @@ public interface TransactionService {
     List<Transaction> getPlayerHistory(Long playerId);
 
     /**
-     * Debit transaction process
+     * Debit transaction process. Replaying an already recorded debit returns the original transaction.
      *
-     * @param amount the amount of transaction
+     * @param amount the amount of transaction in minor units
      * @param transactionIdentifier the transaction identifier
      * @param playerId the player id
+     * @return the recorded transaction
      */
-    void debit(Long playerId, BigDecimal amount, UUID transactionIdentifier);
+    Transaction debit(Long playerId, long amount, UUID transactionIdentifier);
 
     /**
-     * Credit transaction process
+     * Credit transaction process. Replaying an already recorded credit returns the original transaction.
      *
-     * @param amount the amount of transaction
+     * @param amount the amount of transaction in minor units
      * @param transactionIdentifier the transaction identifier
      * @param playerId the player id
+     * @return the recorded transaction
      */
-    void credit(Long playerId, BigDecimal amount, UUID transactionIdentifier);
+    Transaction credit(Long playerId, long amount, UUID transactionIdentifier);
+
+    /**
+     * Transfer transaction process. Debits the sender and credits the recipient in one commit. The debit is recorded
+     * under the given identifier and the credit under {@link #transferCreditIdentifier(UUID)}. Replaying an already
+     * recorded transfer returns the original debit.
+     *
+     * @param fromPlayerId the sender's player id
+     * @param toPlayerId the recipient's player id
+     * @param amount the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the debit transaction of the sender
+     */
+    Transaction transfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier);
+
+    /**
+     * Derives the identifier of the recipient's credit from the identifier of a transfer.
+     *
+     * @param transactionIdentifier the transaction identifier of the transfer
+     * @return the transaction identifier of the credit
+     */
+    static UUID transferCreditIdentifier(UUID transactionIdentifier) {
+        return UUID.nameUUIDFromBytes(("transfer-credit:" + transactionIdentifier).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Batch transaction process. Entries are applied in order, and a rejected entry does not stop the rest.
+     * This default applies every entry as its own credit or debit. An entry with an invalid amount is rejected before
+     * it is applied; a rejected credit can only have exceeded the balance limit and a rejected debit the funds.
+     *
+     * @param playerId the player id
+     * @param entries  the credit and debit entries
+     * @return the result of every entry, in the order of entries
+     */
+    default List<TransactionBatchResult> batch(Long playerId, List<TransactionBatchEntry> entries) {
+        List<TransactionBatchResult> results = new ArrayList<>(entries.size());
+        for (TransactionBatchEntry entry : entries) {
+            OptionalLong amount = Money.toPositiveMinorUnits(entry.getAmount());
+            if (amount.isEmpty()) {
+                results.add(new TransactionBatchResult(entry.getTransactionIdentifier(), BatchEntryStatus.INVALID_AMOUNT));
+                continue;
+            }
+            BatchEntryStatus status;
+            try {
+                if (entry.getType() == TransactionType.CREDIT) {
+                    credit(playerId, amount.getAsLong(), entry.getTransactionIdentifier());
+                } else {
+                    debit(playerId, amount.getAsLong(), entry.getTransactionIdentifier());
+                }
+                status = BatchEntryStatus.OK;
+            } catch (TransactionAlreadyExistsException e) {
+                status = BatchEntryStatus.DUPLICATE;
+            } catch (TransactionOperationException e) {
+                status = entry.getType() == TransactionType.CREDIT
+                        ? BatchEntryStatus.BALANCE_LIMIT_EXCEEDED
+                        : BatchEntryStatus.INSUFFICIENT_FUNDS;
+            }
+            results.add(new TransactionBatchResult(entry.getTransactionIdentifier(), status));
+        }
+        return results;
+    }
 
 }
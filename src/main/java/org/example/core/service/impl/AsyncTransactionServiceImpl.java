@@ -0,0 +1,220 @@
+package org.example.core.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.domain.PendingTransaction;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.PendingTransactionStatus;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.service.AsyncTransactionService;
+import org.example.core.service.TransactionService;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionAlreadyExistsException;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.PendingTransactionRepository;
+import org.example.repository.TransactionRepository;
+import org.example.сonfiguration.AsyncProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code AsyncTransactionServiceImpl} class queues credits and debits in the {@code pending_transactions} table
+ * and applies them on a fixed pool of {@code app.wallet.async.workers} worker threads through the configured
+ * {@link TransactionService}.
+ *
+ * <p>Workers claim queued rows with {@code FOR UPDATE SKIP LOCKED}, so any number of instances drain the same queue
+ * without waiting on each other. A claim that is not finished within {@code app.wallet.async.claim-timeout} is taken
+ * over by another worker; the transaction identifier makes applying it twice a replay. Transactions of the same player
+ * may be applied in a different order than they were submitted.
+ *
+ * <p>Rejections such as insufficient funds are final. Other failures put the transaction back into the queue until it
+ * has been claimed {@code app.wallet.async.max-attempts} times.
+ *
+ * <p>Completed and failed rows are deleted once they are older than {@code app.wallet.async.completed-retention}, by
+ * one worker of each instance every {@code app.wallet.async.cleanup-interval}. A completed transaction is still found
+ * in the ledger afterwards; a failed one may then be submitted again under the same identifier.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncTransactionServiceImpl implements AsyncTransactionService {
+
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private final PendingTransactionRepository pendingTransactionRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final AsyncProperties asyncProperties;
+
+    /**
+     * Wakes an idle worker of this instance when a transaction is submitted here.
+     */
+    private final Semaphore submitted = new Semaphore(0);
+
+    /**
+     * The {@link System#nanoTime()} at which the next cleanup of finished rows is due.
+     */
+    private final AtomicLong nextCleanup = new AtomicLong();
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        nextCleanup.set(System.nanoTime());
+        workers = Executors.newFixedThreadPool(asyncProperties.getWorkers(), r -> new Thread(r, "async-transaction-worker"));
+        for (int i = 0; i < asyncProperties.getWorkers(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            // claims left unfinished are taken over after the claim timeout
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public PendingTransaction submit(Long playerId, TransactionType type, long amount, UUID transactionIdentifier) {
+        Optional<PendingTransaction> existing = pendingTransactionRepository.findByTransactionIdentifier(transactionIdentifier);
+        if (existing.isPresent()) {
+            return replay(existing.get(), playerId, type, amount);
+        }
+
+        PendingTransaction pending;
+        try {
+            pending = pendingTransactionRepository.save(PendingTransaction.builder()
+                    .transactionIdentifier(transactionIdentifier)
+                    .playerId(playerId)
+                    .type(type)
+                    .amount(amount)
+                    .status(PendingTransactionStatus.PENDING)
+                    .createdAt(Instant.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent submission with the same identifier won the unique index
+            return replay(pendingTransactionRepository.findByTransactionIdentifier(transactionIdentifier)
+                    .orElseThrow(() -> e), playerId, type, amount);
+        }
+        submitted.release();
+        return pending;
+    }
+
+    @Override
+    public Optional<PendingTransaction> status(UUID transactionIdentifier) {
+        return pendingTransactionRepository.findByTransactionIdentifier(transactionIdentifier)
+                .or(() -> transactionRepository.findByTransactionIdentifier(transactionIdentifier).map(this::completed));
+    }
+
+    private PendingTransaction replay(PendingTransaction pending, Long playerId, TransactionType type, long amount) {
+        if (Objects.equals(pending.getPlayerId(), playerId) && pending.getType() == type && pending.getAmount() == amount) {
+            return pending;
+        }
+        throw new TransactionAlreadyExistsException(
+                "Transaction with ID " + pending.getTransactionIdentifier() + " already exists.");
+    }
+
+    private PendingTransaction completed(Transaction transaction) {
+        return PendingTransaction.builder()
+                .transactionIdentifier(transaction.getTransactionIdentifier())
+                .playerId(transaction.getPlayerId())
+                .type(transaction.getType())
+                .amount(transaction.getAmount())
+                .status(PendingTransactionStatus.COMPLETED)
+                .balanceAfter(transaction.getBalanceAfter())
+                .build();
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                cleanUpIfDue();
+                List<PendingTransaction> claimed = pendingTransactionRepository.claim(
+                        asyncProperties.getClaimBatchSize(),
+                        Instant.now().minus(asyncProperties.getClaimTimeout()));
+                if (claimed.isEmpty()) {
+                    submitted.tryAcquire(asyncProperties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                claimed.forEach(this::process);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to claim queued transactions", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void process(PendingTransaction pending) {
+        try {
+            Transaction transaction = pending.getType() == TransactionType.CREDIT
+                    ? transactionService.credit(pending.getPlayerId(), pending.getAmount(), pending.getTransactionIdentifier())
+                    : transactionService.debit(pending.getPlayerId(), pending.getAmount(), pending.getTransactionIdentifier());
+            pendingTransactionRepository.complete(pending.getId(), transaction.getBalanceAfter());
+        } catch (PlayerNotFoundException | TransactionOperationException | TransactionAlreadyExistsException e) {
+            pendingTransactionRepository.fail(pending.getId(), e.getMessage());
+        } catch (RuntimeException e) {
+            if (pending.getAttempts() >= asyncProperties.getMaxAttempts()) {
+                log.error("Queued transaction {} failed after {} attempts", pending.getTransactionIdentifier(),
+                        pending.getAttempts(), e);
+                pendingTransactionRepository.fail(pending.getId(), "The transaction could not be applied.");
+            } else {
+                log.warn("Queued transaction {} failed, requeueing", pending.getTransactionIdentifier(), e);
+                pendingTransactionRepository.requeue(pending.getId());
+            }
+        }
+    }
+
+    /**
+     * Deletes the finished rows past their retention in batches, on the first worker that finds the cleanup due.
+     */
+    private void cleanUpIfDue() {
+        Duration retention = asyncProperties.getCompletedRetention();
+        long now = System.nanoTime();
+        long due = nextCleanup.get();
+        if (retention.isZero() || now - due < 0
+                || !nextCleanup.compareAndSet(due, now + asyncProperties.getCleanupInterval().toNanos())) {
+            return;
+        }
+
+        Instant finishedBefore = Instant.now().minus(retention);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = pendingTransactionRepository.deleteFinished(finishedBefore, CLEANUP_BATCH_SIZE);
+            deleted += batch;
+        } while (batch == CLEANUP_BATCH_SIZE && running);
+        if (deleted > 0) {
+            log.info("Deleted {} finished queued transactions older than {}", deleted, retention);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(asyncProperties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -19,7 +19,7 @@ public class AuditServiceImpl implements AuditService {
     private final AuditRepository auditRepository;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<AuditDTO> getAuditHistory() {
         List<Audit> auditList = auditRepository.findAll();
 
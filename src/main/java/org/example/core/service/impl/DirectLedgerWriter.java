@@ -0,0 +1,29 @@
+package org.example.core.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.service.LedgerWriter;
+import org.example.repository.TransactionRepository;
+import org.example.repository.projection.LedgerEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Commits every ledger entry in its own database transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger.group-commit", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class DirectLedgerWriter implements LedgerWriter {
+
+    private final TransactionRepository transactionRepository;
+
+    @Transactional
+    @Override
+    public LedgerEntry write(Long playerId, TransactionType type, long amount, UUID transactionIdentifier) {
+        return transactionRepository.applyEntry(playerId, type, amount, transactionIdentifier);
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.core.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.core.archive.TransactionArchive;
+import org.example.core.cache.PlayerBalanceCache;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.core.service.LedgerSnapshotService;
+import org.example.core.service.TransactionService;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.repository.TransactionRepository;
+import org.example.repository.projection.LedgerBalance;
+import org.example.util.Money;
+import org.example.сonfiguration.LedgerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code EventSourcedTransactionServiceImpl} class treats the transaction log as the source of truth. A player's
+ * balance is the snapshot stored in {@code players.balance} plus the transactions recorded after
+ * {@code players.snapshot_transaction_id}, so a credit or debit only appends a row to the log. The player row is
+ * written once every {@code app.wallet.ledger.event-sourced.snapshot-interval} transactions, when the snapshot is
+ * moved forward, which also bounds the log tail every write has to fold.
+ *
+ * <p>Writers of the same player are serialised by a transaction-scoped advisory lock instead of the player row lock.
+ *
+ * <p>The other modes keep {@code players.balance} current without moving the snapshot, so a database they wrote to
+ * must be rebuilt with {@link LedgerSnapshotService#rebuildAll()}, for example through
+ * {@code app.wallet.ledger.event-sourced.rebuild-on-startup}, when this mode is switched on.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger", name = "mode", havingValue = "event-sourced")
+public class EventSourcedTransactionServiceImpl implements TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties ledgerProperties;
+    private final TransactionIdentifierFilter transactionIdentifierFilter;
+    private final PlayerBalanceCache playerBalanceCache;
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Transaction> getPlayerHistory(Long playerId) {
+        return transactionArchive.withArchived(playerId, transactionRepository.findAllByPlayerId(playerId));
+    }
+
+    @Override
+    public Transaction credit(Long playerId, long amount, UUID transactionIdentifier) {
+        return append(TransactionType.CREDIT, playerId, amount, transactionIdentifier);
+    }
+
+    @Override
+    public Transaction debit(Long playerId, long amount, UUID transactionIdentifier) {
+        return append(TransactionType.DEBIT, playerId, amount, transactionIdentifier);
+    }
+
+    /**
+     * Both players are locked in ascending id order, so concurrent transfers in opposite directions never deadlock.
+     */
+    @Override
+    public Transaction transfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The transfer amount must be positive.");
+        }
+        if (fromPlayerId.equals(toPlayerId)) {
+            throw new TransactionOperationException("Cannot transfer to the same player.");
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<Transaction> original = transactionIdentifierFilter.find(transactionIdentifier);
+                if (original.isPresent()) {
+                    return transactionIdentifierFilter.replay(original.get(), fromPlayerId, TransactionType.DEBIT, amount);
+                }
+
+                transactionJdbcRepository.lockPlayer(Math.min(fromPlayerId, toPlayerId));
+                transactionJdbcRepository.lockPlayer(Math.max(fromPlayerId, toPlayerId));
+                LedgerBalance sender = foldBalance(fromPlayerId);
+                LedgerBalance recipient = foldBalance(toPlayerId);
+                if (sender.balance() < amount) {
+                    throw new TransactionOperationException("Insufficient funds.");
+                }
+
+                Transaction debit = appendEntry(
+                        TransactionType.DEBIT, fromPlayerId, amount, transactionIdentifier, sender);
+                appendEntry(
+                        TransactionType.CREDIT, toPlayerId, amount,
+                        TransactionService.transferCreditIdentifier(transactionIdentifier), recipient);
+                return debit;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent or unknown request with the same identifier won the unique index
+            Transaction original = transactionIdentifierFilter.findOriginal(transactionIdentifier);
+            return transactionIdentifierFilter.replay(original, fromPlayerId, TransactionType.DEBIT, amount);
+        }
+    }
+
+    private Transaction append(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The amount must be positive.");
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<Transaction> original = transactionIdentifierFilter.find(transactionIdentifier);
+                if (original.isPresent()) {
+                    return transactionIdentifierFilter.replay(original.get(), playerId, type, amount);
+                }
+
+                transactionJdbcRepository.lockPlayer(playerId);
+                LedgerBalance ledgerBalance = foldBalance(playerId);
+                if (type == TransactionType.DEBIT && ledgerBalance.balance() < amount) {
+                    throw new TransactionOperationException("Insufficient funds.");
+                }
+                return appendEntry(type, playerId, amount, transactionIdentifier, ledgerBalance);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent or unknown request with the same identifier won the unique index
+            Transaction original = transactionIdentifierFilter.findOriginal(transactionIdentifier);
+            return transactionIdentifierFilter.replay(original, playerId, type, amount);
+        }
+    }
+
+    private LedgerBalance foldBalance(Long playerId) {
+        return transactionJdbcRepository.foldBalance(playerId)
+                .orElseThrow(() -> new PlayerNotFoundException("The player with id " + playerId + " not found."));
+    }
+
+    /**
+     * Appends the entry to the log and checkpoints the player's snapshot when the tail reaches the interval.
+     * Must run under the player's advisory lock.
+     */
+    private Transaction appendEntry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier,
+                                   LedgerBalance ledgerBalance) {
+        long result = type == TransactionType.DEBIT
+                ? ledgerBalance.balance() - amount
+                : Money.add(ledgerBalance.balance(), amount);
+
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .type(type)
+                .playerId(playerId)
+                .amount(amount)
+                .balanceBefore(ledgerBalance.balance())
+                .balanceAfter(result)
+                .transactionIdentifier(transactionIdentifier)
+                .build());
+        if (ledgerBalance.entriesSinceSnapshot() + 1 >= ledgerProperties.getEventSourced().getSnapshotInterval()) {
+            transactionJdbcRepository.checkpoint(playerId, result, transaction.getTransactionId());
+        }
+        transactionIdentifierFilter.record(transaction);
+        playerBalanceCache.record(transaction);
+        return transaction;
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.core.service.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.service.LedgerWriter;
+import org.example.exception.TransactionException;
+import org.example.repository.TransactionRepository;
+import org.example.repository.projection.LedgerEntry;
+import org.example.сonfiguration.LedgerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code GroupCommitLedgerWriter} class commits concurrent ledger entries together. A single committer thread
+ * collects entries until {@code app.wallet.ledger.group-commit.window} has passed since the first one or
+ * {@code max-batch-size} entries are waiting, applies them in one database transaction and completes every caller
+ * only after the shared commit succeeds. One fsync is then paid per group instead of per entry.
+ *
+ * <p>Entries are applied ordered by player id, which keeps the entries of one player in arrival order and makes
+ * concurrent groups lock player rows in the same order. If the shared commit fails, the entries of the group are
+ * committed one by one, so that a single failing entry does not fail its neighbours.
+ *
+ * <p>On shutdown new entries are refused. The committer still commits the entries queued before, and an entry that
+ * slips into the queue after the committer stopped is failed, so no caller waits forever.
+ *
+ * <p>The size of every group and the time each entry waited until its commit are published as
+ * {@code wallet.ledger.group-commit.batch.size} and {@code wallet.ledger.group-commit.wait}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitLedgerWriter implements LedgerWriter, Runnable {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties ledgerProperties;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingEntry> queue;
+    private DistributionSummary batchSize;
+    private Timer waitTime;
+    private Thread committer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new LinkedBlockingQueue<>(ledgerProperties.getGroupCommit().getQueueCapacity());
+        batchSize = DistributionSummary.builder("wallet.ledger.group-commit.batch.size")
+                .description("Number of ledger entries committed together")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        waitTime = Timer.builder("wallet.ledger.group-commit.wait")
+                .description("Time from submitting a ledger entry until its group is committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        running = true;
+        committer = new Thread(this, "ledger-group-committer");
+        committer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        committer.join();
+        PendingEntry entry;
+        while ((entry = queue.poll()) != null) {
+            entry.result().completeExceptionally(shuttingDown());
+        }
+    }
+
+    @Override
+    public LedgerEntry write(Long playerId, TransactionType type, long amount, UUID transactionIdentifier) {
+        if (!running) {
+            throw shuttingDown();
+        }
+
+        PendingEntry entry = new PendingEntry(playerId, type, amount, transactionIdentifier,
+                System.nanoTime(), new CompletableFuture<>());
+        try {
+            queue.put(entry);
+            // the shutdown began while the entry was being queued: unless the committer or the final drain already
+            // took it, nobody will, so it is taken back
+            if (!running && queue.remove(entry)) {
+                throw shuttingDown();
+            }
+            return entry.result().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TransactionException(e.getCause());
+        }
+    }
+
+    @Override
+    public void run() {
+        LedgerProperties.GroupCommit groupCommit = ledgerProperties.getGroupCommit();
+        List<PendingEntry> group = new ArrayList<>(groupCommit.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+
+                long deadline = System.nanoTime() + groupCommit.getWindow().toNanos();
+                while (group.size() < groupCommit.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingEntry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+
+                group.sort(Comparator.comparing(PendingEntry::playerId));
+                batchSize.record(group.size());
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(entry -> entry.result().completeExceptionally(shuttingDown()));
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingEntry> group) {
+        List<LedgerEntry> results;
+        try {
+            results = transactionTemplate.execute(status -> group.stream().map(this::apply).toList());
+        } catch (RuntimeException e) {
+            if (group.size() > 1) {
+                log.warn("Group commit of {} ledger entries failed, committing them one by one", group.size(), e);
+                group.forEach(entry -> commit(List.of(entry)));
+            } else {
+                complete(group.get(0), null, e);
+            }
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            complete(group.get(i), results.get(i), null);
+        }
+    }
+
+    private LedgerEntry apply(PendingEntry entry) {
+        return transactionRepository.applyEntry(
+                entry.playerId(), entry.type(), entry.amount(), entry.transactionIdentifier());
+    }
+
+    private void complete(PendingEntry entry, LedgerEntry result, RuntimeException failure) {
+        waitTime.record(System.nanoTime() - entry.submittedAt(), TimeUnit.NANOSECONDS);
+        if (failure == null) {
+            entry.result().complete(result);
+        } else {
+            entry.result().completeExceptionally(failure);
+        }
+    }
+
+    private static TransactionException shuttingDown() {
+        return new TransactionException("The ledger is shutting down.");
+    }
+
+    private record PendingEntry(Long playerId, TransactionType type, long amount, UUID transactionIdentifier,
+                                long submittedAt, CompletableFuture<LedgerEntry> result) {
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.core.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.cache.PlayerBalanceCache;
+import org.example.core.domain.Hold;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.HoldStatus;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.core.service.HoldService;
+import org.example.core.timer.HashedTimerWheel;
+import org.example.exception.HoldNotFoundException;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionAlreadyExistsException;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.HoldRepository;
+import org.example.repository.PlayerRepository;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.repository.TransactionRepository;
+import org.example.repository.projection.LockedBalance;
+import org.example.сonfiguration.HoldProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code HoldServiceImpl} class keeps the held amounts of a player in {@code players.reserved}, which the atomic
+ * and optimistic write paths subtract from the balance before they accept a debit. Every change of a hold locks the
+ * hold row and updates the player row, so it is serialised with the debits of the same player.
+ *
+ * <p>Expiry is driven by a {@link HashedTimerWheel} instead of polling the database: a hold is put on the wheel when
+ * it is placed, and when its timeout fires the hold is released if it is still active. Captured and released holds
+ * stay on the wheel until then; their timeout finds them inactive and does nothing. On startup every active hold is
+ * put on the wheel again, so holds that expired while the service was down are released on the first tick.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnExpression(HoldService.ENABLED)
+public class HoldServiceImpl implements HoldService {
+
+    private final HoldRepository holdRepository;
+    private final PlayerRepository playerRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldProperties holdProperties;
+    private final TransactionIdentifierFilter transactionIdentifierFilter;
+    private final PlayerBalanceCache playerBalanceCache;
+
+    private ExecutorService expirer;
+    private HashedTimerWheel timerWheel;
+
+    @PostConstruct
+    void start() {
+        expirer = Executors.newFixedThreadPool(holdProperties.getExpiryThreads(), r -> new Thread(r, "hold-expirer"));
+        timerWheel = new HashedTimerWheel("hold-timer-wheel",
+                holdProperties.getTickDuration(), holdProperties.getWheelSize(), expirer);
+        // a read-write transaction keeps the read on the primary, so no recently placed hold is left without expiry
+        List<Hold> active = transactionTemplate.execute(status -> holdRepository.findAllByStatus(HoldStatus.ACTIVE));
+        active.forEach(hold -> scheduleExpiry(hold.getHoldIdentifier(), hold.getExpiresAt()));
+        log.info("Hold timer wheel started with {} active holds", active.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        timerWheel.close();
+        expirer.shutdown();
+    }
+
+    @Transactional
+    @Override
+    public Hold place(Long playerId, long amount, Duration ttl, UUID holdIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The held amount must be positive.");
+        }
+        Duration holdTtl = ttl != null ? ttl : holdProperties.getDefaultTtl();
+        if (holdTtl.isNegative() || holdTtl.isZero() || holdTtl.compareTo(holdProperties.getMaxTtl()) > 0) {
+            throw new TransactionOperationException("The hold TTL must be positive and at most " + holdProperties.getMaxTtl() + ".");
+        }
+
+        Hold existing = holdRepository.findByHoldIdentifier(holdIdentifier).orElse(null);
+        if (existing != null) {
+            if (Objects.equals(existing.getPlayerId(), playerId) && existing.getAmount() == amount) {
+                return existing;
+            }
+            throw new TransactionAlreadyExistsException("Hold with ID " + holdIdentifier + " already exists.");
+        }
+
+        if (playerRepository.reserve(playerId, amount) == 0) {
+            if (!playerRepository.existsById(playerId)) {
+                throw new PlayerNotFoundException("The player with id " + playerId + " not found.");
+            }
+            throw new TransactionOperationException("Insufficient funds.");
+        }
+        Hold hold = holdRepository.save(Hold.builder()
+                .holdIdentifier(holdIdentifier)
+                .playerId(playerId)
+                .amount(amount)
+                .status(HoldStatus.ACTIVE)
+                .expiresAt(Instant.now().plus(holdTtl))
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleExpiry(hold.getHoldIdentifier(), hold.getExpiresAt());
+            }
+        });
+        return hold;
+    }
+
+    @Transactional
+    @Override
+    public Transaction capture(Long playerId, UUID holdIdentifier, Long amount) {
+        Hold hold = lockHold(playerId, holdIdentifier);
+        long captured = amount != null ? amount : hold.getAmount();
+        UUID transactionIdentifier = HoldService.captureIdentifier(holdIdentifier);
+
+        if (hold.getStatus() == HoldStatus.CAPTURED && Objects.equals(hold.getCapturedAmount(), captured)) {
+            return transactionRepository.findByTransactionIdentifier(transactionIdentifier)
+                    .orElseThrow(() -> new HoldNotFoundException("The debit of hold " + holdIdentifier + " not found."));
+        }
+        if (hold.getStatus() != HoldStatus.ACTIVE || !hold.getExpiresAt().isAfter(Instant.now())) {
+            throw new TransactionOperationException("The hold " + holdIdentifier + " is not active.");
+        }
+        if (captured <= 0 || captured > hold.getAmount()) {
+            throw new TransactionOperationException("The captured amount must be positive and at most the held amount.");
+        }
+
+        LockedBalance balance = transactionJdbcRepository.lockBalance(playerId)
+                .orElseThrow(() -> new PlayerNotFoundException("The player with id " + playerId + " not found."));
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .type(TransactionType.DEBIT)
+                .playerId(playerId)
+                .amount(captured)
+                .balanceBefore(balance.balance())
+                .balanceAfter(balance.balance() - captured)
+                .transactionIdentifier(transactionIdentifier)
+                .build());
+        playerRepository.settle(playerId, transaction.getBalanceAfter(), hold.getAmount());
+        hold.setStatus(HoldStatus.CAPTURED);
+        hold.setCapturedAmount(captured);
+        transactionIdentifierFilter.record(transaction);
+        playerBalanceCache.record(transaction);
+        return transaction;
+    }
+
+    @Transactional
+    @Override
+    public Hold release(Long playerId, UUID holdIdentifier) {
+        Hold hold = lockHold(playerId, holdIdentifier);
+        if (hold.getStatus() == HoldStatus.CAPTURED) {
+            throw new TransactionOperationException("The hold " + holdIdentifier + " is already captured.");
+        }
+        if (hold.getStatus() == HoldStatus.ACTIVE) {
+            playerRepository.release(playerId, hold.getAmount());
+            hold.setStatus(HoldStatus.RELEASED);
+        }
+        return hold;
+    }
+
+    private Hold lockHold(Long playerId, UUID holdIdentifier) {
+        return holdRepository.findForUpdate(holdIdentifier)
+                .filter(hold -> Objects.equals(hold.getPlayerId(), playerId))
+                .orElseThrow(() -> new HoldNotFoundException("The hold with id " + holdIdentifier + " not found."));
+    }
+
+    private void scheduleExpiry(UUID holdIdentifier, Instant expiresAt) {
+        timerWheel.schedule(() -> expire(holdIdentifier), expiresAt);
+    }
+
+    /**
+     * Runs on an expirer thread when the timeout of the hold fires.
+     */
+    private void expire(UUID holdIdentifier) {
+        try {
+            Instant rescheduleAt = transactionTemplate.execute(status -> {
+                Hold hold = holdRepository.findForUpdate(holdIdentifier).orElse(null);
+                if (hold == null || hold.getStatus() != HoldStatus.ACTIVE) {
+                    return null;
+                }
+                if (hold.getExpiresAt().isAfter(Instant.now())) {
+                    return hold.getExpiresAt();
+                }
+                playerRepository.release(hold.getPlayerId(), hold.getAmount());
+                hold.setStatus(HoldStatus.EXPIRED);
+                return null;
+            });
+            if (rescheduleAt != null) {
+                scheduleExpiry(holdIdentifier, rescheduleAt);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to expire hold {}, retrying", holdIdentifier, e);
+            scheduleExpiry(holdIdentifier, Instant.now().plus(holdProperties.getExpiryRetryDelay()));
+        }
+    }
+}
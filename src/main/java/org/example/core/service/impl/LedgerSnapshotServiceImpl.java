@@ -0,0 +1,80 @@
+package org.example.core.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.service.LedgerSnapshotService;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionException;
+import org.example.repository.PlayerRepository;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.сonfiguration.LedgerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code LedgerSnapshotServiceImpl} class rebuilds the snapshots of the event-sourced ledger. Every player is
+ * rebuilt in its own database transaction under the same advisory lock the writers take, so a rebuild can run while
+ * the ledger keeps accepting transactions.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger", name = "mode", havingValue = "event-sourced")
+public class LedgerSnapshotServiceImpl implements LedgerSnapshotService {
+
+    private final PlayerRepository playerRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties ledgerProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (ledgerProperties.getEventSourced().isRebuildOnStartup()) {
+            rebuildAll();
+        }
+    }
+
+    @Override
+    public long rebuild(Long playerId) {
+        return transactionTemplate.execute(status -> {
+            transactionJdbcRepository.lockPlayer(playerId);
+            return transactionJdbcRepository.rebuildSnapshot(playerId)
+                    .orElseThrow(() -> new PlayerNotFoundException("The player with id " + playerId + " not found."));
+        });
+    }
+
+    @Override
+    public int rebuildAll() {
+        List<Long> playerIds = playerRepository.findAllIds();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                ledgerProperties.getEventSourced().getRebuildParallelism());
+        try {
+            List<Future<Long>> rebuilds = new ArrayList<>(playerIds.size());
+            for (Long playerId : playerIds) {
+                rebuilds.add(executor.submit(() -> rebuild(playerId)));
+            }
+            for (Future<Long> rebuild : rebuilds) {
+                rebuild.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            throw new TransactionException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Rebuilt the balance snapshots of {} players", playerIds.size());
+        return playerIds.size();
+    }
+}
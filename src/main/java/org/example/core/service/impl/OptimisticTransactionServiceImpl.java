@@ -0,0 +1,215 @@
+package org.example.core.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.archive.TransactionArchive;
+import org.example.core.cache.PlayerBalanceCache;
+import org.example.core.domain.Player;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.core.service.TransactionService;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionException;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.PlayerRepository;
+import org.example.repository.TransactionRepository;
+import org.example.util.Money;
+import org.example.сonfiguration.LedgerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * The {@code OptimisticTransactionServiceImpl} class applies credit and debit transactions as a read-modify-write
+ * against the versioned {@link Player} row. A concurrent change of the same row fails the commit, and the whole
+ * transaction is retried with jittered exponential backoff up to {@code app.wallet.ledger.optimistic.max-attempts}.
+ *
+ * <p>The identifier is looked up in the database only when {@link TransactionIdentifierFilter} reports a possible
+ * hit; identifiers it does not know are caught by the unique index on commit instead.
+ *
+ * <p>Uncontended wallets pay no row lock wait. Retries and aborted transactions are published as the
+ * {@code wallet.ledger.optimistic.retries} and {@code wallet.ledger.optimistic.aborts} counters.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger", name = "mode", havingValue = "optimistic")
+public class OptimisticTransactionServiceImpl implements TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties ledgerProperties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionIdentifierFilter transactionIdentifierFilter;
+    private final PlayerBalanceCache playerBalanceCache;
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Transaction> getPlayerHistory(Long playerId) {
+        return transactionArchive.withArchived(playerId, transactionRepository.findAllByPlayerId(playerId));
+    }
+
+    @Override
+    public Transaction credit(Long playerId, long amount, UUID transactionIdentifier) {
+        return applyWithRetry(TransactionType.CREDIT, playerId, amount, transactionIdentifier);
+    }
+
+    @Override
+    public Transaction debit(Long playerId, long amount, UUID transactionIdentifier) {
+        return applyWithRetry(TransactionType.DEBIT, playerId, amount, transactionIdentifier);
+    }
+
+    /**
+     * Both players are loaded in ascending id order, so their versioned updates are flushed, and their rows
+     * locked, in the same order by every concurrent transfer.
+     */
+    @Override
+    public Transaction transfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The transfer amount must be positive.");
+        }
+        if (fromPlayerId.equals(toPlayerId)) {
+            throw new TransactionOperationException("Cannot transfer to the same player.");
+        }
+        return withRetry(transactionIdentifier, TransactionType.DEBIT, fromPlayerId, amount,
+                () -> applyTransfer(fromPlayerId, toPlayerId, amount, transactionIdentifier));
+    }
+
+    private Transaction applyWithRetry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The amount must be positive.");
+        }
+        return withRetry(transactionIdentifier, type, playerId, amount,
+                () -> applyEntry(type, playerId, amount, transactionIdentifier));
+    }
+
+    /**
+     * Runs the operation in a new database transaction, retrying it while it conflicts with a concurrent one.
+     * The type, player and amount describe the recorded transaction, for replaying a reused identifier.
+     */
+    private Transaction withRetry(UUID transactionIdentifier, TransactionType type, Long playerId, long amount,
+                                  Supplier<Transaction> operation) {
+        LedgerProperties.Optimistic optimistic = ledgerProperties.getOptimistic();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> operation.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= optimistic.getMaxAttempts()) {
+                    meterRegistry.counter("wallet.ledger.optimistic.aborts").increment();
+                    log.warn("Transaction {} aborted after {} conflicting attempts", transactionIdentifier, attempt);
+                    throw new TransactionException(e);
+                }
+                meterRegistry.counter("wallet.ledger.optimistic.retries").increment();
+                backoff(attempt, optimistic);
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent or unknown request with the same identifier won the unique index
+                Transaction original = transactionIdentifierFilter.findOriginal(transactionIdentifier);
+                return transactionIdentifierFilter.replay(original, playerId, type, amount);
+            }
+        }
+    }
+
+    private Transaction applyEntry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        Optional<Transaction> original = transactionIdentifierFilter.find(transactionIdentifier);
+        if (original.isPresent()) {
+            return transactionIdentifierFilter.replay(original.get(), playerId, type, amount);
+        }
+
+        Player player = findPlayer(playerId);
+        long playerBalance = player.getBalance();
+
+        if (type == TransactionType.DEBIT && playerBalance - player.getReserved() < amount) {
+            throw new TransactionOperationException("Insufficient funds.");
+        }
+
+        long result = type == TransactionType.DEBIT
+                ? playerBalance - amount
+                : Money.add(playerBalance, amount);
+
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .type(type)
+                .playerId(playerId)
+                .amount(amount)
+                .balanceBefore(playerBalance)
+                .balanceAfter(result)
+                .transactionIdentifier(transactionIdentifier)
+                .build());
+        // the version check happens when the dirty player is flushed on commit
+        player.setBalance(result);
+        transactionIdentifierFilter.record(transaction);
+        playerBalanceCache.record(transaction);
+        return transaction;
+    }
+
+    private Transaction applyTransfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier) {
+        Optional<Transaction> original = transactionIdentifierFilter.find(transactionIdentifier);
+        if (original.isPresent()) {
+            return transactionIdentifierFilter.replay(original.get(), fromPlayerId, TransactionType.DEBIT, amount);
+        }
+
+        Player first = findPlayer(Math.min(fromPlayerId, toPlayerId));
+        Player second = findPlayer(Math.max(fromPlayerId, toPlayerId));
+        Player sender = first.getId().equals(fromPlayerId) ? first : second;
+        Player recipient = sender == first ? second : first;
+
+        long senderBalance = sender.getBalance();
+        long recipientBalance = recipient.getBalance();
+        if (senderBalance - sender.getReserved() < amount) {
+            throw new TransactionOperationException("Insufficient funds.");
+        }
+
+        Transaction debit = transactionRepository.save(Transaction.builder()
+                .type(TransactionType.DEBIT)
+                .playerId(fromPlayerId)
+                .amount(amount)
+                .balanceBefore(senderBalance)
+                .balanceAfter(senderBalance - amount)
+                .transactionIdentifier(transactionIdentifier)
+                .build());
+        Transaction credit = transactionRepository.save(Transaction.builder()
+                .type(TransactionType.CREDIT)
+                .playerId(toPlayerId)
+                .amount(amount)
+                .balanceBefore(recipientBalance)
+                .balanceAfter(Money.add(recipientBalance, amount))
+                .transactionIdentifier(TransactionService.transferCreditIdentifier(transactionIdentifier))
+                .build());
+        sender.setBalance(debit.getBalanceAfter());
+        recipient.setBalance(credit.getBalanceAfter());
+        transactionIdentifierFilter.record(debit);
+        playerBalanceCache.record(debit);
+        transactionIdentifierFilter.record(credit);
+        playerBalanceCache.record(credit);
+        return debit;
+    }
+
+    private Player findPlayer(Long playerId) {
+        return playerRepository.findById(playerId)
+                .orElseThrow(() -> new PlayerNotFoundException("The player with id " + playerId + " not found."));
+    }
+
+    private void backoff(int attempt, LedgerProperties.Optimistic optimistic) {
+        long ceiling = Math.min(
+                optimistic.getMaxBackoff().toMillis(),
+                optimistic.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        }
+    }
+}
@@ -1,24 +1,42 @@
 package org.example.core.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.core.cache.PlayerBalanceCache;
 import org.example.core.domain.Player;
 import org.example.core.service.PlayerService;
 import org.example.exception.PlayerNotFoundException;
 import org.example.repository.PlayerRepository;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.repository.projection.LedgerBalance;
+import org.example.repository.projection.PlayerSummary;
+import org.example.сonfiguration.LedgerProperties;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class PlayerServiceImpl implements PlayerService {
 
     private final PlayerRepository playerRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final LedgerProperties ledgerProperties;
+    private final PlayerBalanceCache playerBalanceCache;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * In the event-sourced mode the stored balance is only a snapshot, so the balance is folded from the log tail.
+     */
     @Transactional(readOnly = true)
     @Override
-    public BigDecimal getPlayerBalance(Long id) {
+    public long getPlayerBalance(Long id) {
+        if (ledgerProperties.getMode() == LedgerProperties.Mode.EVENT_SOURCED) {
+            return transactionJdbcRepository.foldBalance(id)
+                    .map(LedgerBalance::balance)
+                    .orElseThrow(() -> new PlayerNotFoundException("The player with id " + id + " not found."));
+        }
         return playerRepository.findById(id)
                 .orElseThrow(() -> new PlayerNotFoundException("The player with id " + id + " not found."))
                 .getBalance();
@@ -26,18 +44,55 @@ public class PlayerServiceImpl implements PlayerService {
 
     @Transactional
     @Override
-    public void updateBalance(Long id, BigDecimal balance) {
+    public void updateBalance(Long id, long balance) {
         Player byId = playerRepository.findById(id)
                 .orElseThrow(() -> new PlayerNotFoundException("The player with id " + id + " not found."));
         byId.setBalance(balance);
         playerRepository.save(byId);
+        playerBalanceCache.evict(id);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Callers look the player up to write to it, so the read is not marked read-only and never goes to a read replica
+     * that may not have the player yet.
+     */
+    @Transactional
     @Override
     public Player findByUsername(String login) {
         return playerRepository.findByUsername(login)
                 .orElseThrow(() -> new PlayerNotFoundException("Player with login " + login + " not found!"));
     }
 
+    /**
+     * Served from the {@link PlayerBalanceCache} while the player is cached, without a transaction or a pool connection.
+     * A miss is read in a read-write transaction, which keeps it on the primary: a summary read from a lagging replica
+     * would stay in the cache until it expires.
+     */
+    @Override
+    public PlayerSummary getPlayerSummary(String username) {
+        Optional<PlayerSummary> cached = playerBalanceCache.get(username);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        PlayerSummary summary = transactionTemplate.execute(status -> findSummary(username));
+        playerBalanceCache.load(summary);
+        return summary;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Long getPlayerId(String username) {
+        return playerRepository.findIdByUsername(username)
+                .orElseThrow(() -> new PlayerNotFoundException("Player with login " + username + " not found!"));
+    }
+
+    private PlayerSummary findSummary(String username) {
+        PlayerSummary summary = playerRepository.findSummaryByUsername(username)
+                .orElseThrow(() -> new PlayerNotFoundException("Player with login " + username + " not found!"));
+        if (ledgerProperties.getMode() == LedgerProperties.Mode.EVENT_SOURCED) {
+            summary = summary.withBalance(getPlayerBalance(summary.id()));
+        }
+        return summary;
+    }
+
 }
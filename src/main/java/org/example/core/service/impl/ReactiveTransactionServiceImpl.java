@@ -0,0 +1,115 @@
+package org.example.core.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.Player;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.TransactionPage;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.core.service.ReactiveTransactionService;
+import org.example.core.service.TransactionHistoryService;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.ReactivePlayerRepository;
+import org.example.repository.ReactiveTransactionRepository;
+import org.example.util.SqlStates;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The {@code ReactiveTransactionServiceImpl} class is the non-blocking counterpart of {@link TransactionServiceImpl}.
+ * A credit or debit is the same single statement, so the balance check, the hold reservations and the duplicate
+ * check are enforced by the database exactly as in the atomic ledger, and a reused identifier is replayed the same way.
+ *
+ * <p>History pages run the keyset statement of the servlet API through R2DBC, and the {@link TransactionHistoryService}
+ * decodes the cursor and completes them, so both APIs share the cursor and continue into the archive. The archive is
+ * read from memory-mapped files, so only a page that continues into it is completed on the bounded elastic scheduler
+ * rather than on the event loop.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    private final ReactivePlayerRepository reactivePlayerRepository;
+    private final ReactiveTransactionRepository reactiveTransactionRepository;
+    private final TransactionIdentifierFilter transactionIdentifierFilter;
+    private final TransactionHistoryService transactionHistoryService;
+
+    @Override
+    public Mono<Player> findPlayer(String username) {
+        return reactivePlayerRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new PlayerNotFoundException("Player with login " + username + " not found!")));
+    }
+
+    @Override
+    public Mono<TransactionPage> getPlayerHistory(Long playerId, String cursor, Integer limit,
+                                                  TransactionType type, Instant from, Instant to) {
+        return Mono.fromCallable(() -> transactionHistoryService.toPageRequest(playerId, cursor, limit, type, from, to))
+                .flatMap(request -> reactiveTransactionRepository.findHistoryPage(request)
+                        .collectList()
+                        .flatMap(transactions -> request.isFilledBy(transactions)
+                                ? Mono.just(transactionHistoryService.completePage(request, transactions))
+                                // the page continues into the archive, whose files are read with blocking I/O
+                                : Mono.fromCallable(() -> transactionHistoryService.completePage(request, transactions))
+                                        .subscribeOn(Schedulers.boundedElastic())));
+    }
+
+    @Override
+    public Mono<Transaction> credit(Long playerId, long amount, UUID transactionIdentifier) {
+        return applyEntry(TransactionType.CREDIT, playerId, amount, transactionIdentifier);
+    }
+
+    @Override
+    public Mono<Transaction> debit(Long playerId, long amount, UUID transactionIdentifier) {
+        return applyEntry(TransactionType.DEBIT, playerId, amount, transactionIdentifier);
+    }
+
+    /**
+     * A non-positive amount is refused before the statement runs: its signed delta would move the balance the other
+     * way than the recorded type.
+     */
+    private Mono<Transaction> applyEntry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            return Mono.error(new TransactionOperationException("The amount must be positive."));
+        }
+        return reactiveTransactionRepository.applyEntry(playerId, type, amount, transactionIdentifier)
+                .flatMap(entry -> {
+                    if (entry.getDuplicate()) {
+                        return replayOriginal(type, playerId, amount, transactionIdentifier);
+                    }
+                    if (!entry.getPlayerFound()) {
+                        return Mono.error(new PlayerNotFoundException("The player with id " + playerId + " not found."));
+                    }
+                    if (entry.getTransactionId() == null) {
+                        return Mono.error(new TransactionOperationException(type == TransactionType.CREDIT
+                                ? "The balance limit is exceeded."
+                                : "Insufficient funds."));
+                    }
+                    return Mono.just(Transaction.builder()
+                            .transactionId(entry.getTransactionId())
+                            .type(type)
+                            .playerId(playerId)
+                            .amount(amount)
+                            .balanceBefore(entry.getBalanceBefore())
+                            .balanceAfter(entry.getBalanceAfter())
+                            .transactionIdentifier(transactionIdentifier)
+                            .build());
+                })
+                // a concurrent request with the same identifier won the unique index
+                .onErrorResume(e -> e instanceof DataIntegrityViolationException && SqlStates.isUniqueViolation(e),
+                        e -> replayOriginal(type, playerId, amount, transactionIdentifier));
+    }
+
+    private Mono<Transaction> replayOriginal(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        return reactiveTransactionRepository.findByTransactionIdentifier(transactionIdentifier)
+                .switchIfEmpty(Mono.error(() -> transactionIdentifierFilter.transactionAlreadyExists(transactionIdentifier)))
+                .map(original -> transactionIdentifierFilter.replay(original, playerId, type, amount));
+    }
+}
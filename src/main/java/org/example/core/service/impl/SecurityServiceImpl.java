@@ -11,7 +11,6 @@ import org.example.security.JwtProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 @Service
@@ -32,7 +31,7 @@ public class SecurityServiceImpl implements SecurityService {
         Player newPlayer = Player.builder()
                 .username(username)
                 .password(password)
-                .balance(BigDecimal.ZERO)
+                .balance(0L)
                 .playerRole(PlayerRole.USER)
                 .build();
 
@@ -0,0 +1,419 @@
+package org.example.core.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.archive.TransactionArchive;
+import org.example.core.cache.PlayerBalanceCache;
+import org.example.core.domain.Player;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.core.journal.TransactionJournal;
+import org.example.core.service.TransactionService;
+import org.example.exception.PlayerNotFoundException;
+import org.example.exception.TransactionException;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.PlayerRepository;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.repository.TransactionRepository;
+import org.example.util.Money;
+import org.example.сonfiguration.LedgerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code ShardedTransactionServiceImpl} class keeps the authoritative balance of every touched player in memory.
+ * Each player id hashes to one of {@code app.wallet.ledger.sharded.shards} shards, and each shard is owned by a single
+ * worker thread, so credits and debits are applied without locks. The shard hands every applied entry to its own
+ * flusher thread, which writes the entries to the database asynchronously, in batches and in the order they were
+ * applied.
+ *
+ * <p>With {@code app.wallet.ledger.sharded.journal.enabled}, every shard also appends its entries to a memory-mapped
+ * {@link TransactionJournal} and acknowledges them only once they are durable there, so an acknowledged entry
+ * survives a crash before it reaches the database. On startup, the entries the journals hold beyond their checkpoints
+ * are written to the database before any new entry is accepted; entries already there are skipped by their
+ * identifier. An I/O failure of the journal stops the shard. The entries it was applying are reported as failed,
+ * but they may still be recovered from the journal on the next start, so clients retry them with the same identifier.
+ *
+ * <p>A player's balance is loaded from the database the first time its shard touches it. From then on this instance
+ * must be the only writer of that player. Balances read through the repositories trail the in-memory ones until
+ * persistence catches up.
+ *
+ * <p>Entries are acknowledged before they reach the database, so there is no unique index to catch a reused
+ * identifier later. Apart from recently recorded identifiers, the duplicate check therefore stays an exact
+ * database lookup.
+ *
+ * <p>Transfers are not supported: the two players may be owned by different shards, and no single writer could
+ * apply both sides atomically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger", name = "mode", havingValue = "sharded")
+public class ShardedTransactionServiceImpl implements TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties ledgerProperties;
+    private final TransactionIdentifierFilter transactionIdentifierFilter;
+    private final PlayerBalanceCache playerBalanceCache;
+
+    /**
+     * Identifiers that are accepted by a shard but not yet persisted, so they are invisible to the database lookup.
+     */
+    private final Set<UUID> pendingIdentifiers = ConcurrentHashMap.newKeySet();
+
+    private Shard[] shards;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() throws IOException {
+        LedgerProperties.Sharded sharded = ledgerProperties.getSharded();
+        LedgerProperties.Journal journal = sharded.getJournal();
+        if (journal.isEnabled()) {
+            List<Transaction> recovered = TransactionJournal.recover(journal.getDirectory());
+            for (int from = 0; from < recovered.size(); from += sharded.getFlushBatchSize()) {
+                write(recovered.subList(from, Math.min(recovered.size(), from + sharded.getFlushBatchSize())));
+            }
+            TransactionJournal.deleteAll(journal.getDirectory());
+            log.info("Recovered {} journaled entries", recovered.size());
+        }
+
+        shards = new Shard[sharded.getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, sharded.getQueueCapacity(), journal.isEnabled()
+                    ? new TransactionJournal(journal.getDirectory(), "shard-" + i,
+                            journal.getSegmentSize().toBytes(), journal.getFsync())
+                    : null);
+        }
+        running = true;
+        for (Shard shard : shards) {
+            shard.worker.start();
+            shard.flusher.start();
+        }
+        log.info("Sharded ledger started with {} shards", shards.length);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            shard.worker.join();
+            // entries enqueued after the worker's last poll would otherwise never complete
+            Entry entry;
+            while ((entry = shard.entries.poll()) != null) {
+                entry.result().completeExceptionally(shuttingDown());
+            }
+        }
+        for (Shard shard : shards) {
+            shard.flusher.join();
+            if (shard.journal != null) {
+                shard.journal.close();
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Transaction> getPlayerHistory(Long playerId) {
+        return transactionArchive.withArchived(playerId, transactionRepository.findAllByPlayerId(playerId));
+    }
+
+    @Override
+    public Transaction credit(Long playerId, long amount, UUID transactionIdentifier) {
+        return submit(new Entry(TransactionType.CREDIT, playerId, amount, transactionIdentifier));
+    }
+
+    @Override
+    public Transaction debit(Long playerId, long amount, UUID transactionIdentifier) {
+        return submit(new Entry(TransactionType.DEBIT, playerId, amount, transactionIdentifier));
+    }
+
+    @Override
+    public Transaction transfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier) {
+        throw new TransactionOperationException("Transfers are not supported by the sharded ledger.");
+    }
+
+    private Transaction submit(Entry entry) {
+        if (entry.amount() <= 0) {
+            throw new TransactionOperationException("The amount must be positive.");
+        }
+        Optional<Transaction> original = transactionIdentifierFilter.findRecent(entry.transactionIdentifier())
+                .or(() -> reserveIdentifier(entry.transactionIdentifier()));
+        if (original.isPresent()) {
+            return transactionIdentifierFilter.replay(original.get(), entry.playerId(), entry.type(), entry.amount());
+        }
+
+        try {
+            shardOf(entry.playerId()).enqueue(entry);
+            Transaction transaction = entry.result().join();
+            transactionIdentifierFilter.record(transaction);
+            playerBalanceCache.record(transaction);
+            return transaction;
+        } catch (CompletionException e) {
+            pendingIdentifiers.remove(entry.transactionIdentifier());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TransactionException(e.getCause());
+        } catch (RuntimeException e) {
+            pendingIdentifiers.remove(entry.transactionIdentifier());
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves the identifier for this request, or returns the transaction already recorded with it.
+     */
+    private Optional<Transaction> reserveIdentifier(UUID transactionIdentifier) {
+        if (!pendingIdentifiers.add(transactionIdentifier)) {
+            throw transactionIdentifierFilter.transactionAlreadyExists(transactionIdentifier);
+        }
+        // read in a read-write transaction so that it runs on the primary: a lagging replica would let the entry
+        // be applied to the in-memory balance a second time
+        Optional<Transaction> original = transactionTemplate.execute(
+                status -> transactionRepository.findByTransactionIdentifier(transactionIdentifier));
+        if (original.isPresent()) {
+            pendingIdentifiers.remove(transactionIdentifier);
+        }
+        return original;
+    }
+
+    private static TransactionException shuttingDown() {
+        return new TransactionException("The ledger is shutting down.");
+    }
+
+    private Shard shardOf(Long playerId) {
+        return shards[Math.floorMod(Long.hashCode(playerId), shards.length)];
+    }
+
+    private record Entry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier,
+                         CompletableFuture<Transaction> result) {
+
+        Entry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+            this(type, playerId, amount, transactionIdentifier, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Writes the transactions and the resulting balances of their players in one database transaction. Transactions
+     * whose identifier is already recorded are skipped, so a batch can be written again after a failure.
+     */
+    private void write(List<Transaction> transactions) {
+        Map<Long, Long> balances = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            balances.put(transaction.getPlayerId(), transaction.getBalanceAfter());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionJdbcRepository.insertAllIfAbsent(transactions);
+            transactionJdbcRepository.updateBalances(balances);
+        });
+    }
+
+    private record Journaled(Transaction transaction, long position) {
+    }
+
+    /**
+     * A shard owns the balances of its players. Only the worker thread reads or writes {@code balances}
+     * and appends to {@code journal}.
+     */
+    private final class Shard implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Entry> entries;
+        private final BlockingQueue<Journaled> unflushed = new LinkedBlockingQueue<>();
+        private final Map<Long, Long> balances = new HashMap<>();
+        private final TransactionJournal journal;
+        private final Thread worker;
+        private final Thread flusher;
+        private volatile boolean failed;
+
+        Shard(int index, int queueCapacity, TransactionJournal journal) {
+            this.index = index;
+            this.entries = new ArrayBlockingQueue<>(queueCapacity);
+            this.journal = journal;
+            this.worker = new Thread(this, "ledger-shard-" + index);
+            this.flusher = new Thread(this::flush, "ledger-shard-" + index + "-flusher");
+        }
+
+        void enqueue(Entry entry) {
+            if (!running) {
+                throw shuttingDown();
+            }
+            if (failed) {
+                throw new TransactionException("The ledger journal of shard " + index + " failed.");
+            }
+            try {
+                entries.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransactionException(e);
+            }
+            // the worker may have stopped between the check above and the put; whoever removes the entry fails it
+            if (!running && entries.remove(entry)) {
+                throw shuttingDown();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Entry> drained = new ArrayList<>();
+            while (running || !entries.isEmpty()) {
+                try {
+                    Entry entry = entries.poll(100, TimeUnit.MILLISECONDS);
+                    if (entry != null) {
+                        drained.add(entry);
+                        entries.drainTo(drained, ledgerProperties.getSharded().getMaxDrainSize() - 1);
+                        applyAll(drained);
+                        drained.clear();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Applies the drained entries, journals the accepted ones with a single sync and only then acknowledges them.
+         */
+        private void applyAll(List<Entry> drained) {
+            List<Entry> accepted = new ArrayList<>(drained.size());
+            List<Journaled> journaled = new ArrayList<>(drained.size());
+            try {
+                for (Entry entry : drained) {
+                    if (failed) {
+                        entry.result().completeExceptionally(
+                                new TransactionException("The ledger journal of shard " + index + " failed."));
+                        continue;
+                    }
+                    try {
+                        Transaction transaction = apply(entry);
+                        long position = journal != null ? journal.append(transaction) : 0L;
+                        balances.put(entry.playerId(), transaction.getBalanceAfter());
+                        accepted.add(entry);
+                        journaled.add(new Journaled(transaction, position));
+                    } catch (RuntimeException e) {
+                        entry.result().completeExceptionally(e);
+                    }
+                }
+                if (journal != null) {
+                    journal.sync();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Shard {} stopped after a journal failure", index, e);
+                failed = true;
+                drained.forEach(entry -> entry.result().completeExceptionally(new TransactionException(e)));
+                return;
+            }
+
+            unflushed.addAll(journaled);
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).result().complete(journaled.get(i).transaction());
+            }
+        }
+
+        private Transaction apply(Entry entry) {
+            long playerBalance = balanceOf(entry.playerId());
+
+            if (entry.type() == TransactionType.DEBIT && playerBalance < entry.amount()) {
+                throw new TransactionOperationException("Insufficient funds.");
+            }
+
+            long result = entry.type() == TransactionType.DEBIT
+                    ? playerBalance - entry.amount()
+                    : Money.add(playerBalance, entry.amount());
+
+            return Transaction.builder()
+                    .type(entry.type())
+                    .playerId(entry.playerId())
+                    .amount(entry.amount())
+                    .balanceBefore(playerBalance)
+                    .balanceAfter(result)
+                    .transactionIdentifier(entry.transactionIdentifier())
+                    .build();
+        }
+
+        private long balanceOf(Long playerId) {
+            Long balance = balances.get(playerId);
+            if (balance == null) {
+                // the loaded balance becomes authoritative and is written back, so it must come from the primary
+                balance = transactionTemplate.execute(status -> playerRepository.findById(playerId))
+                        .map(Player::getBalance)
+                        .orElseThrow(() -> new PlayerNotFoundException("The player with id " + playerId + " not found."));
+                balances.put(playerId, balance);
+            }
+            return balance;
+        }
+
+        /**
+         * Runs on the flusher thread until the worker has stopped and every applied entry is written.
+         * Batches are retried until they are written so that their order is kept.
+         */
+        private void flush() {
+            List<Journaled> batch = new ArrayList<>();
+            while (worker.isAlive() || !unflushed.isEmpty()) {
+                try {
+                    Journaled first = unflushed.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    unflushed.drainTo(batch, ledgerProperties.getSharded().getFlushBatchSize() - 1);
+                    flush(batch);
+                    batch.clear();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.error("Shard {} stopped with {} unflushed entries", index, batch.size() + unflushed.size());
+                    return;
+                }
+            }
+        }
+
+        private void flush(List<Journaled> batch) throws InterruptedException {
+            List<Transaction> transactions = batch.stream().map(Journaled::transaction).toList();
+            while (true) {
+                try {
+                    write(transactions);
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("Shard {} failed to persist {} entries, retrying", index, transactions.size(), e);
+                    Thread.sleep(ledgerProperties.getSharded().getPersistRetryDelay().toMillis());
+                }
+            }
+            transactions.forEach(transaction -> pendingIdentifiers.remove(transaction.getTransactionIdentifier()));
+            if (journal != null) {
+                try {
+                    journal.checkpoint(batch.get(batch.size() - 1).position());
+                } catch (IOException e) {
+                    // harmless: the entries are recovered again on the next start and skipped by their identifier
+                    log.warn("Shard {} failed to checkpoint its journal", index, e);
+                }
+            }
+        }
+    }
+}
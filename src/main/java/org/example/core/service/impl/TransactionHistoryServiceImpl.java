@@ -0,0 +1,124 @@
+package org.example.core.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.core.archive.TransactionArchive;
+import org.example.core.domain.HistoryPageRequest;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.TransactionPage;
+import org.example.core.domain.types.TransactionType;
+import org.example.core.service.TransactionHistoryService;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.TransactionJdbcRepository;
+import org.example.repository.projection.StatementTotal;
+import org.example.repository.projection.TransactionView;
+import org.example.сonfiguration.HistoryProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The {@code TransactionHistoryServiceImpl} class pages through the transaction log with keyset pagination: the
+ * cursor carries the id and the recording time of the last transaction returned, and the next page seeks below the
+ * id on the {@code (player_id, id)} index of only the partitions up to that time. One extra row is read to tell
+ * whether another page follows. The full history is exported through a database cursor instead, in constant memory.
+ * Pages and the export continue into the {@link TransactionArchive} past the oldest transaction left in the database.
+ * Statements are summed from the daily rollups the database maintains on every insert.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryServiceImpl implements TransactionHistoryService {
+
+    private static final String CURSOR_SEPARATOR = "/";
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionArchive transactionArchive;
+    private final HistoryProperties historyProperties;
+
+    @Transactional(readOnly = true)
+    @Override
+    public TransactionPage getPlayerHistory(Long playerId, String cursor, Integer limit,
+                                            TransactionType type, Instant from, Instant to) {
+        HistoryPageRequest request = toPageRequest(playerId, cursor, limit, type, from, to);
+        return completePage(request, transactionJdbcRepository.findHistoryPage(request));
+    }
+
+    @Override
+    public HistoryPageRequest toPageRequest(Long playerId, String cursor, Integer limit,
+                                            TransactionType type, Instant from, Instant to) {
+        int pageSize = limit == null
+                ? historyProperties.getDefaultPageSize()
+                : Math.max(1, Math.min(limit, historyProperties.getMaxPageSize()));
+        if (cursor == null || cursor.isEmpty()) {
+            return new HistoryPageRequest(playerId, null, null, type, from, to, pageSize);
+        }
+        try {
+            // the id of the last transaction returned and, in cursors issued since it is carried, its recording time
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII)
+                    .split(CURSOR_SEPARATOR, 2);
+            Instant beforeCreatedAt = position.length > 1 ? Instant.parse(position[1]) : null;
+            return new HistoryPageRequest(
+                    playerId, Long.parseLong(position[0]), beforeCreatedAt, type, from, to, pageSize);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new TransactionOperationException("The cursor " + cursor + " is not valid.");
+        }
+    }
+
+    @Override
+    public TransactionPage completePage(HistoryPageRequest request, List<TransactionView> databasePage) {
+        int pageSize = request.pageSize();
+        List<TransactionView> transactions = new ArrayList<>(databasePage);
+        if (!request.isFilledBy(transactions)) {
+            // the database has no older transactions of the player, so the page continues into the archive below
+            // the oldest one returned, which keeps later cursors from reaching back into the database
+            Long archiveBeforeId = transactions.isEmpty()
+                    ? request.beforeId()
+                    : transactions.get(transactions.size() - 1).id();
+            for (Transaction transaction : transactionArchive.findHistoryPage(request.playerId(), archiveBeforeId,
+                    request.type(), request.from(), request.to(), pageSize + 1 - transactions.size())) {
+                transactions.add(TransactionView.of(transaction));
+            }
+        }
+        if (transactions.size() <= pageSize) {
+            return new TransactionPage(transactions, null);
+        }
+        List<TransactionView> page = transactions.subList(0, pageSize);
+        return new TransactionPage(page, encodeCursor(page.get(pageSize - 1)));
+    }
+
+    /**
+     * The read-only transaction keeps the database cursor open while the consumer writes the rows out.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void exportPlayerHistory(Long playerId, Consumer<TransactionView> consumer) {
+        transactionArchive.forEach(playerId, transaction -> consumer.accept(TransactionView.of(transaction)));
+        transactionJdbcRepository.streamHistory(playerId, historyProperties.getExportFetchSize(), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<TransactionType, StatementTotal> getStatement(Long playerId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new TransactionOperationException("The statement range starts after it ends.");
+        }
+        Map<TransactionType, StatementTotal> totals = transactionJdbcRepository.sumDailyRollups(playerId, from, to);
+        for (TransactionType type : TransactionType.values()) {
+            totals.putIfAbsent(type, new StatementTotal(0, 0));
+        }
+        return totals;
+    }
+
+    private String encodeCursor(TransactionView last) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.id() + CURSOR_SEPARATOR + last.createdAt()).getBytes(StandardCharsets.US_ASCII));
+    }
+}
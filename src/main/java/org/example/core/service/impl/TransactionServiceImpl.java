@@ -1,89 +1,258 @@
 package org.example.core.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.core.archive.TransactionArchive;
+import org.example.core.cache.PlayerBalanceCache;
 import org.example.core.domain.Transaction;
+import org.example.core.domain.types.BatchEntryStatus;
 import org.example.core.domain.types.TransactionType;
-import org.example.core.service.PlayerService;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.core.service.LedgerWriter;
 import org.example.core.service.TransactionService;
-import org.example.dto.TransactionResponse;
+import org.example.dto.TransactionBatchEntry;
+import org.example.dto.TransactionBatchResult;
+import org.example.exception.PlayerNotFoundException;
 import org.example.exception.TransactionAlreadyExistsException;
 import org.example.exception.TransactionOperationException;
-import org.example.mapper.TransactionMapper;
+import org.example.repository.TransactionJdbcRepository;
 import org.example.repository.TransactionRepository;
+import org.example.repository.projection.LedgerEntry;
+import org.example.repository.projection.LockedBalance;
+import org.example.util.Money;
+import org.example.util.SqlStates;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.wallet.ledger", name = "mode", havingValue = "atomic", matchIfMissing = true)
 public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final PlayerService playerService;
+    private final TransactionArchive transactionArchive;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final LedgerWriter ledgerWriter;
+    private final TransactionIdentifierFilter transactionIdentifierFilter;
+    private final PlayerBalanceCache playerBalanceCache;
 
     @Transactional(readOnly = true)
     @Override
     public List<Transaction> getPlayerHistory(Long playerId) {
-        return transactionRepository.findAllByPlayerId(playerId);
+        return transactionArchive.withArchived(playerId, transactionRepository.findAllByPlayerId(playerId));
+    }
+
+    @Override
+    public Transaction credit(Long playerId, long amount, UUID transactionIdentifier) {
+        return applyEntry(TransactionType.CREDIT, playerId, amount, transactionIdentifier);
+    }
 
+    @Override
+    public Transaction debit(Long playerId, long amount, UUID transactionIdentifier) {
+        return applyEntry(TransactionType.DEBIT, playerId, amount, transactionIdentifier);
     }
 
+    /**
+     * Locks both player rows with one statement in ascending id order, so concurrent transfers in opposite
+     * directions queue behind each other instead of deadlocking. Both rows and both balances are written with
+     * JDBC batches in the same commit.
+     */
     @Transactional
     @Override
-    public void credit(Long playerId, BigDecimal amount, UUID transactionIdentifier) {
-        checkTransaction(transactionIdentifier);
+    public Transaction transfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The transfer amount must be positive.");
+        }
+        if (fromPlayerId.equals(toPlayerId)) {
+            throw new TransactionOperationException("Cannot transfer to the same player.");
+        }
 
-        Transaction transaction = openNewTransaction(TransactionType.CREDIT, playerId);
-        BigDecimal playerBalance = playerService.getPlayerBalance(playerId);
+        Optional<Transaction> original = transactionIdentifierFilter.findRecent(transactionIdentifier)
+                .or(() -> transactionRepository.findByTransactionIdentifier(transactionIdentifier));
+        if (original.isPresent()) {
+            return transactionIdentifierFilter.replay(original.get(), fromPlayerId, TransactionType.DEBIT, amount);
+        }
 
-        transaction.setAmount(amount);
-        transaction.setBalanceBefore(playerBalance);
-        transaction.setTransactionIdentifier(transactionIdentifier);
+        Map<Long, LockedBalance> balances = transactionJdbcRepository.lockBalances(List.of(fromPlayerId, toPlayerId));
+        LockedBalance sender = balances.get(fromPlayerId);
+        LockedBalance recipient = balances.get(toPlayerId);
+        if (sender == null) {
+            throw new PlayerNotFoundException("The player with id " + fromPlayerId + " not found.");
+        }
+        if (recipient == null) {
+            throw new PlayerNotFoundException("The player with id " + toPlayerId + " not found.");
+        }
+        if (sender.available() < amount) {
+            throw new TransactionOperationException("Insufficient funds.");
+        }
 
-        BigDecimal result = playerBalance.add(amount);
-        transaction.setBalanceAfter(result);
+        Transaction debit = Transaction.builder()
+                .type(TransactionType.DEBIT)
+                .playerId(fromPlayerId)
+                .amount(amount)
+                .balanceBefore(sender.balance())
+                .balanceAfter(sender.balance() - amount)
+                .transactionIdentifier(transactionIdentifier)
+                .build();
+        Transaction credit = Transaction.builder()
+                .type(TransactionType.CREDIT)
+                .playerId(toPlayerId)
+                .amount(amount)
+                .balanceBefore(recipient.balance())
+                .balanceAfter(Money.add(recipient.balance(), amount))
+                .transactionIdentifier(TransactionService.transferCreditIdentifier(transactionIdentifier))
+                .build();
 
-        transactionRepository.save(transaction);
-        playerService.updateBalance(playerId, result);
+        try {
+            transactionJdbcRepository.insertAll(List.of(debit, credit));
+        } catch (DataIntegrityViolationException e) {
+            throw new TransactionAlreadyExistsException("Transaction with ID " + transactionIdentifier + " already exists.");
+        }
+        transactionJdbcRepository.updateBalances(Map.of(
+                fromPlayerId, debit.getBalanceAfter(),
+                toPlayerId, credit.getBalanceAfter()));
+        transactionIdentifierFilter.record(debit);
+        playerBalanceCache.record(debit);
+        transactionIdentifierFilter.record(credit);
+        playerBalanceCache.record(credit);
+        return debit;
     }
 
-    @Override
+    /**
+     * Applies the whole batch under one lock of the player row: one statement locks the balance, one finds the
+     * identifiers already used, and the accepted rows and the final balance are written with JDBC batches
+     * in the same commit. Every entry is validated before it is applied, so a bad entry is rejected on its own instead
+     * of aborting the batch.
+     */
     @Transactional
-    public void debit(Long playerId, BigDecimal amount, UUID transactionIdentifier) {
-        checkTransaction(transactionIdentifier);
+    @Override
+    public List<TransactionBatchResult> batch(Long playerId, List<TransactionBatchEntry> entries) {
+        LockedBalance lockedBalance = transactionJdbcRepository.lockBalance(playerId)
+                .orElseThrow(() -> new PlayerNotFoundException("The player with id " + playerId + " not found."));
+        long playerBalance = lockedBalance.balance();
+        Set<UUID> usedIdentifiers = transactionJdbcRepository.findExistingIdentifiers(
+                entries.stream().map(TransactionBatchEntry::getTransactionIdentifier).toList());
 
-        Transaction transaction = openNewTransaction(TransactionType.DEBIT, playerId);
-        BigDecimal playerBalance = playerService.getPlayerBalance(playerId);
+        List<Transaction> accepted = new ArrayList<>();
+        List<TransactionBatchResult> results = new ArrayList<>(entries.size());
+        for (TransactionBatchEntry entry : entries) {
+            UUID transactionIdentifier = entry.getTransactionIdentifier();
+            if (usedIdentifiers.contains(transactionIdentifier)) {
+                results.add(new TransactionBatchResult(transactionIdentifier, BatchEntryStatus.DUPLICATE));
+                continue;
+            }
+            OptionalLong minorUnits = Money.toPositiveMinorUnits(entry.getAmount());
+            if (minorUnits.isEmpty()) {
+                results.add(new TransactionBatchResult(transactionIdentifier, BatchEntryStatus.INVALID_AMOUNT));
+                continue;
+            }
+            long amount = minorUnits.getAsLong();
+            if (entry.getType() == TransactionType.DEBIT && playerBalance - lockedBalance.reserved() < amount) {
+                results.add(new TransactionBatchResult(transactionIdentifier, BatchEntryStatus.INSUFFICIENT_FUNDS));
+                continue;
+            }
+            if (entry.getType() == TransactionType.CREDIT && Money.exceedsLimit(playerBalance, amount)) {
+                results.add(new TransactionBatchResult(transactionIdentifier, BatchEntryStatus.BALANCE_LIMIT_EXCEEDED));
+                continue;
+            }
 
-        if (playerBalance.compareTo(amount) < 0) {
-            throw new TransactionOperationException("Insufficient funds.");
+            long result = entry.getType() == TransactionType.DEBIT
+                    ? playerBalance - amount
+                    : playerBalance + amount;
+            accepted.add(Transaction.builder()
+                    .type(entry.getType())
+                    .playerId(playerId)
+                    .amount(amount)
+                    .balanceBefore(playerBalance)
+                    .balanceAfter(result)
+                    .transactionIdentifier(transactionIdentifier)
+                    .build());
+            usedIdentifiers.add(transactionIdentifier);
+            playerBalance = result;
+            results.add(new TransactionBatchResult(transactionIdentifier, BatchEntryStatus.OK));
         }
 
-        transaction.setAmount(amount);
-        transaction.setBalanceBefore(playerBalance);
-        transaction.setTransactionIdentifier(transactionIdentifier);
+        if (!accepted.isEmpty()) {
+            try {
+                transactionJdbcRepository.insertAll(accepted);
+            } catch (DataIntegrityViolationException e) {
+                throw new TransactionAlreadyExistsException("The batch conflicts with a concurrent transaction. Try again");
+            }
+            transactionJdbcRepository.updateBalances(Map.of(playerId, playerBalance));
+            accepted.forEach(transactionIdentifierFilter::record);
+            accepted.forEach(playerBalanceCache::record);
+        }
+        return results;
+    }
 
-        BigDecimal result = playerBalance.subtract(amount);
-        transaction.setBalanceAfter(result);
+    /**
+     * The ledger writer owns the database transaction, so that the entry can share a commit with other entries.
+     * A recently recorded identifier is replayed without a write; the statement itself reports older duplicates.
+     */
+    private Transaction applyEntry(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        if (amount <= 0) {
+            throw new TransactionOperationException("The amount must be positive.");
+        }
+        Optional<Transaction> recent = transactionIdentifierFilter.findRecent(transactionIdentifier);
+        if (recent.isPresent()) {
+            return transactionIdentifierFilter.replay(recent.get(), playerId, type, amount);
+        }
 
-        transactionRepository.save(transaction);
-        playerService.updateBalance(playerId, result);
-    }
+        LedgerEntry entry;
+        try {
+            entry = ledgerWriter.write(playerId, type, amount, transactionIdentifier);
+        } catch (DataIntegrityViolationException e) {
+            if (!SqlStates.isUniqueViolation(e)) {
+                throw e;
+            }
+            // a concurrent request with the same identifier won the unique index
+            return replayOriginal(type, playerId, amount, transactionIdentifier);
+        }
 
-    private Transaction openNewTransaction(TransactionType type, Long playerId) {
-        Transaction transaction = new Transaction();
-        transaction.setType(type);
-        transaction.setPlayerId(playerId);
+        if (entry.getDuplicate()) {
+            return replayOriginal(type, playerId, amount, transactionIdentifier);
+        }
+        if (!entry.getPlayerFound()) {
+            throw new PlayerNotFoundException("The player with id " + playerId + " not found.");
+        }
+        if (entry.getTransactionId() == null) {
+            throw rejected(type);
+        }
+
+        Transaction transaction = Transaction.builder()
+                .transactionId(entry.getTransactionId())
+                .type(type)
+                .playerId(playerId)
+                .amount(amount)
+                .balanceBefore(entry.getBalanceBefore())
+                .balanceAfter(entry.getBalanceAfter())
+                .transactionIdentifier(transactionIdentifier)
+                .build();
+        transactionIdentifierFilter.record(transaction);
+        playerBalanceCache.record(transaction);
         return transaction;
     }
 
-    private void checkTransaction(UUID transactionIdentifier) {
-        if (transactionRepository.findByTransactionIdentifier(transactionIdentifier).isPresent()) {
-            throw new TransactionAlreadyExistsException("Transaction with ID " + transactionIdentifier + " already exists.");
-        }
+    /**
+     * The statement writes nothing for a debit past the available funds or a credit past the balance limit.
+     */
+    private static TransactionOperationException rejected(TransactionType type) {
+        return new TransactionOperationException(type == TransactionType.CREDIT
+                ? "The balance limit is exceeded."
+                : "Insufficient funds.");
+    }
+
+    private Transaction replayOriginal(TransactionType type, Long playerId, long amount, UUID transactionIdentifier) {
+        Transaction original = transactionIdentifierFilter.findOriginal(transactionIdentifier);
+        return transactionIdentifierFilter.replay(original, playerId, type, amount);
     }
 }
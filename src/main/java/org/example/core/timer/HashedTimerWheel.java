@@ -0,0 +1,167 @@
+package org.example.core.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timer wheel: a ring of buckets, each holding the timeouts that fall on it, advanced by one bucket every
+ * tick. Scheduling a timeout is a constant-time append to a queue, and a tick only walks the timeouts of one bucket,
+ * so millions of timeouts cost one small node each and no per-timeout thread or database polling. Timeouts due more
+ * than one revolution ahead stay in their bucket with a count of the remaining revolutions.
+ *
+ * <p>A timeout fires up to one tick late. Due tasks are handed to the given executor, so a slow task does not delay
+ * the wheel. Pending timeouts are dropped when the wheel is closed.
+ */
+@Slf4j
+public class HashedTimerWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread ticker;
+    private final long startNanos = System.nanoTime();
+
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Creates and starts a timer wheel.
+     *
+     * @param name         the name of the ticker thread
+     * @param tickDuration the duration of a tick, the resolution of the wheel
+     * @param wheelSize    the number of buckets, rounded up to a power of two
+     * @param executor     the executor that runs due tasks
+     */
+    public HashedTimerWheel(String name, Duration tickDuration, int wheelSize, Executor executor) {
+        this.tickNanos = Math.max(1, tickDuration.toNanos());
+        this.wheel = new Bucket[Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.executor = executor;
+        this.ticker = new Thread(this::run, name);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedules the task to run at the deadline, or on the next tick if the deadline has passed.
+     *
+     * @param task     the task
+     * @param deadline the moment the task is due
+     */
+    public void schedule(Runnable task, Instant deadline) {
+        long delayNanos = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        scheduled.add(new Timeout(task, System.nanoTime() - startNanos + delayNanos));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of timeouts that have not fired yet.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Moves the timeouts scheduled since the last tick into their buckets. Runs on the ticker thread only.
+     */
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            long dueTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (Math.max(dueTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * A singly linked list of timeouts, touched by the ticker thread only.
+     */
+    private final class Bucket {
+        private Timeout head;
+
+        void add(Timeout timeout) {
+            timeout.next = head;
+            head = timeout;
+        }
+
+        void expire(long deadline) {
+            Timeout previous = null;
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    if (previous == null) {
+                        head = next;
+                    } else {
+                        previous.next = next;
+                    }
+                    timeout.next = null;
+                    pending.decrementAndGet();
+                    fire(timeout);
+                } else {
+                    if (timeout.remainingRounds > 0) {
+                        timeout.remainingRounds--;
+                    }
+                    previous = timeout;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        try {
+            executor.execute(timeout.task);
+        } catch (RuntimeException e) {
+            log.error("Failed to run an expired timeout", e);
+        }
+    }
+}
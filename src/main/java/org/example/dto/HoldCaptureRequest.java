@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The hold capture request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldCaptureRequest {
+
+    @NotNull
+    private String username;
+
+    /**
+     * The captured part of the held amount; when absent, the whole hold is captured.
+     */
+    @DecimalMin(message = "Amount must not less than 0.0!", value = "0.0", inclusive = false)
+    private BigDecimal amount;
+}
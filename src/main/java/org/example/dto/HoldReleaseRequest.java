@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The hold release request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldReleaseRequest {
+
+    @NotNull
+    private String username;
+}
@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * The hold request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldRequest {
+
+    @NotNull
+    private String username;
+
+    @NotNull
+    @DecimalMin(message = "Amount must not less than 0.0!", value = "0.0", inclusive = false)
+    private BigDecimal amount;
+
+    /**
+     * How long the hold lives before it is released automatically, for example {@code PT30S}; when absent,
+     * the configured default applies.
+     */
+    private Duration ttl;
+
+    /**
+     * The client-chosen identifier of the hold; when absent, the server generates one.
+     */
+    private UUID holdIdentifier;
+}
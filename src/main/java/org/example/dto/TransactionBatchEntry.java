@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.core.domain.types.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A single credit or debit entry of a transaction batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchEntry {
+
+    @NotNull
+    private TransactionType type;
+
+    @NotNull
+    @DecimalMin(message = "Amount must not less than 0.0!", value = "0.0", inclusive = false)
+    private BigDecimal amount;
+
+    @NotNull
+    private UUID transactionIdentifier;
+}
@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The transaction batch request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchRequest {
+
+    @NotNull
+    private String username;
+
+    @NotEmpty
+    private List<@Valid TransactionBatchEntry> entries;
+}
@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.core.domain.types.BatchEntryStatus;
+
+import java.util.UUID;
+
+/**
+ * The result of a single entry of a transaction batch
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBatchResult {
+
+    private UUID transactionIdentifier;
+    private BatchEntryStatus status;
+}
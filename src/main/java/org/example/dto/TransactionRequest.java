@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * The transaction request
@@ -23,4 +24,10 @@ public class TransactionRequest {
     @NotNull
     @DecimalMin(message = "Amount must not less than 0.0!", value = "0.0", inclusive = false)
     private BigDecimal amount;
+
+    /**
+     * The client-chosen identifier of the transaction. Retrying with the same identifier returns the original
+     * result instead of applying the transaction twice; when absent, the server generates one.
+     */
+    private UUID transactionIdentifier;
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -20,4 +21,5 @@ public class TransactionResponse {
     private BigDecimal balanceAfter;
     private BigDecimal amount;
     private UUID transactionIdentifier;
+    private Instant createdAt;
 }
\ No newline at end of file
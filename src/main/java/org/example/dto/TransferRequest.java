@@ -0,0 +1,40 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The transfer request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequest {
+
+    /**
+     * The username of the sender, who must own the authorization token.
+     */
+    @NotNull
+    private String username;
+
+    /**
+     * The username of the recipient.
+     */
+    @NotNull
+    private String recipient;
+
+    @NotNull
+    @DecimalMin(message = "Amount must not less than 0.0!", value = "0.0", inclusive = false)
+    private BigDecimal amount;
+
+    /**
+     * The client-chosen identifier of the transfer; when absent, the server generates one.
+     */
+    private UUID transactionIdentifier;
+}
@@ -0,0 +1,15 @@
+package org.example.exception;
+
+/**
+ * Exception indicating that a funds hold could not be found.
+ */
+public class HoldNotFoundException extends RuntimeException {
+    /**
+     * Constructs a new HoldNotFoundException with the specified detail message.
+     *
+     * @param message The detail message describing the exception.
+     */
+    public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
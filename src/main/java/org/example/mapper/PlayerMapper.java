@@ -2,8 +2,12 @@ package org.example.mapper;
 
 import org.example.core.domain.Player;
 import org.example.dto.PlayerDTO;
+import org.example.repository.projection.PlayerSummary;
+import org.example.util.Money;
 import org.mapstruct.Mapper;
 
+import java.math.BigDecimal;
+
 @Mapper(componentModel = "spring")
 public interface PlayerMapper {
 
@@ -15,5 +19,23 @@ public interface PlayerMapper {
      */
     PlayerDTO toDto(Player entity);
 
+    /**
+     * Mapping player summary to dto
+     *
+     * @param summary the player summary
+     * @return mapped player dto
+     */
+    PlayerDTO toDto(PlayerSummary summary);
+
+    /**
+     * Mapping minor units to the decimal amount of the API
+     *
+     * @param minorUnits the amount in minor units
+     * @return the decimal amount
+     */
+    default BigDecimal toDecimal(long minorUnits) {
+        return Money.toDecimal(minorUnits);
+    }
+
 }
 
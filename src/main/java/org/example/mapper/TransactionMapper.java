@@ -4,12 +4,14 @@ import org.example.core.domain.Player;
 import org.example.core.domain.Transaction;
 import org.example.dto.PlayerDTO;
 import org.example.dto.TransactionResponse;
+import org.example.util.Money;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -22,5 +24,15 @@ public interface TransactionMapper {
      * @return mapped transaction dto list
      */
     List<TransactionResponse> toDTOList(List<Transaction> entities);
+
+    /**
+     * Mapping minor units to the decimal amount of the API
+     *
+     * @param minorUnits the amount in minor units
+     * @return the decimal amount
+     */
+    default BigDecimal toDecimal(long minorUnits) {
+        return Money.toDecimal(minorUnits);
+    }
 }
 
@@ -0,0 +1,30 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.core.domain.Hold;
+import org.example.core.domain.types.HoldStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    Optional<Hold> findByHoldIdentifier(UUID holdIdentifier);
+
+    /**
+     * Finds the hold and locks its row until the end of the current transaction.
+     *
+     * @param holdIdentifier the hold identifier
+     * @return the hold, or empty if there is no such hold
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from Hold h where h.holdIdentifier = :holdIdentifier")
+    Optional<Hold> findForUpdate(@Param("holdIdentifier") UUID holdIdentifier);
+
+    List<Hold> findAllByStatus(HoldStatus status);
+}
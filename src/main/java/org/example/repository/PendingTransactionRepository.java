@@ -0,0 +1,92 @@
+package org.example.repository;
+
+import org.example.core.domain.PendingTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PendingTransactionRepository extends JpaRepository<PendingTransaction, Long> {
+
+    Optional<PendingTransaction> findByTransactionIdentifier(UUID transactionIdentifier);
+
+    /**
+     * Claims up to {@code limit} queued transactions for this worker, oldest first. Rows claimed by another worker
+     * are skipped instead of waited for, so several instances drain the queue in parallel. Transactions claimed
+     * before {@code staleBefore} and never finished, for example by an instance that died, are claimed again.
+     *
+     * @param limit       the maximum number of transactions
+     * @param staleBefore the claim time before which an unfinished claim is considered abandoned
+     * @return the claimed transactions
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE wallet.pending_transactions p
+            SET status = 'PROCESSING',
+                claimed_at = now(),
+                attempts = p.attempts + 1
+            WHERE p.id IN (
+                SELECT q.id FROM wallet.pending_transactions q
+                WHERE q.status = 'PENDING'
+                   OR (q.status = 'PROCESSING' AND q.claimed_at < :staleBefore)
+                ORDER BY q.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING p.*
+            """, nativeQuery = true)
+    List<PendingTransaction> claim(@Param("limit") int limit, @Param("staleBefore") Instant staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update PendingTransaction p set p.status = org.example.core.domain.types.PendingTransactionStatus.COMPLETED, "
+            + "p.balanceAfter = :balanceAfter where p.id = :id")
+    int complete(@Param("id") Long id, @Param("balanceAfter") long balanceAfter);
+
+    @Transactional
+    @Modifying
+    @Query("update PendingTransaction p set p.status = org.example.core.domain.types.PendingTransactionStatus.FAILED, "
+            + "p.error = :error where p.id = :id")
+    int fail(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Deletes up to {@code limit} completed or failed transactions, oldest first, that were last claimed before
+     * {@code finishedBefore}. Rows locked by another instance's cleanup are skipped.
+     *
+     * @param finishedBefore the claim time before which a finished transaction is deleted
+     * @param limit          the maximum number of transactions
+     * @return the number of deleted rows
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM wallet.pending_transactions
+            WHERE id IN (
+                SELECT q.id FROM wallet.pending_transactions q
+                WHERE q.status IN ('COMPLETED', 'FAILED')
+                  AND q.claimed_at < :finishedBefore
+                ORDER BY q.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteFinished(@Param("finishedBefore") Instant finishedBefore, @Param("limit") int limit);
+
+    /**
+     * Puts a claimed transaction back into the queue after a transient failure.
+     *
+     * @param id the queue entry id
+     * @return the number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("update PendingTransaction p set p.status = org.example.core.domain.types.PendingTransactionStatus.PENDING "
+            + "where p.id = :id")
+    int requeue(@Param("id") Long id);
+}
@@ -1,7 +1,11 @@
 package org.example.repository;
 
 import org.example.core.domain.Player;
+import org.example.repository.projection.PlayerSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +14,74 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
 
     Optional<Player> findByUsername(String username);
 
+    /**
+     * Selects the public part of the player, without loading the entity into the persistence context.
+     *
+     * @param username the username
+     * @return the player summary, or empty if there is no such player
+     */
+    @Query("select new org.example.repository.projection.PlayerSummary(p.id, p.username, p.balance) "
+            + "from Player p where p.username = :username")
+    Optional<PlayerSummary> findSummaryByUsername(@Param("username") String username);
+
+    /**
+     * Selects the id of the player.
+     *
+     * @param username the username
+     * @return the player id, or empty if there is no such player
+     */
+    @Query("select p.id from Player p where p.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("select p.id from Player p order by p.id")
+    List<Long> findAllIds();
+
+    /**
+     * Overwrites the player's balance without reading the row first.
+     *
+     * @param id      the player id
+     * @param balance the new balance in minor units
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Player p set p.balance = :balance, p.version = p.version + 1 where p.id = :id")
+    int setBalance(@Param("id") Long id, @Param("balance") long balance);
+
+    /**
+     * Reserves the amount if the player's available balance covers it.
+     *
+     * @param id     the player id
+     * @param amount the amount in minor units
+     * @return the number of updated rows, {@code 0} if the player is missing, the funds are insufficient or the amount
+     * is not positive
+     */
+    @Modifying
+    @Query("update Player p set p.reserved = p.reserved + :amount, p.version = p.version + 1 "
+            + "where p.id = :id and :amount > 0 and p.balance - p.reserved >= :amount")
+    int reserve(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Releases a reservation of the player.
+     *
+     * @param id     the player id
+     * @param amount the reserved amount in minor units
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Player p set p.reserved = p.reserved - :amount, p.version = p.version + 1 where p.id = :id")
+    int release(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Overwrites the player's balance and releases a reservation in the same statement.
+     *
+     * @param id       the player id
+     * @param balance  the new balance in minor units
+     * @param released the released reserved amount in minor units
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Player p set p.balance = :balance, p.reserved = p.reserved - :released, p.version = p.version + 1 "
+            + "where p.id = :id")
+    int settle(@Param("id") Long id, @Param("balance") long balance, @Param("released") long released);
+
 }
@@ -0,0 +1,52 @@
+package org.example.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.Player;
+import org.example.core.domain.types.PlayerRole;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code ReactivePlayerRepository} class reads players through the non-blocking R2DBC driver for the reactive
+ * variant of the player API.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePlayerRepository {
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * Finds the player by the username.
+     *
+     * @param username the username
+     * @return the player, or empty if there is no such player
+     */
+    public Mono<Player> findByUsername(String username) {
+        return reactiveDatabaseClient.sql("""
+                        SELECT id, username, password, role, balance, reserved, version
+                        FROM wallet.players
+                        WHERE username = :username
+                        """)
+                .bind("username", username)
+                .map(ReactivePlayerRepository::toPlayer)
+                .one();
+    }
+
+    private static Player toPlayer(Readable row) {
+        String role = row.get("role", String.class);
+        return Player.builder()
+                .id(row.get("id", Long.class))
+                .username(row.get("username", String.class))
+                .password(row.get("password", String.class))
+                .playerRole(role != null ? PlayerRole.valueOf(role) : null)
+                .balance(row.get("balance", Long.class))
+                .reserved(row.get("reserved", Long.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.HistoryPageRequest;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.repository.projection.LedgerEntry;
+import org.example.repository.projection.TransactionView;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The {@code ReactiveTransactionRepository} class reads and writes the ledger through the non-blocking R2DBC driver
+ * for the reactive variant of the player API. Credits and debits run {@link TransactionRepository#APPLY_ENTRY}, the
+ * statement of the atomic ledger, in autocommit, and history pages the keyset statement of the servlet API.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionRepository {
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * Finds the transaction by its identifier.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction, or empty if the identifier was not used
+     */
+    public Mono<Transaction> findByTransactionIdentifier(UUID transactionIdentifier) {
+        return reactiveDatabaseClient.sql("""
+                        SELECT t.*
+                        FROM wallet.transaction_identifiers i
+                        JOIN wallet.transactions t ON t.id = i.transaction_id AND t.created_at = i.created_at
+                        WHERE i.transaction_identifier = :transactionIdentifier
+                        """)
+                .bind("transactionIdentifier", transactionIdentifier.toString())
+                .map(ReactiveTransactionRepository::toTransaction)
+                .one();
+    }
+
+    /**
+     * Reads the database part of a history page with the statement of
+     * {@link TransactionJdbcRepository#findHistoryPage(HistoryPageRequest)}.
+     *
+     * @param request the page request
+     * @return up to one transaction more than the page holds, newest first, as returned by the history API
+     */
+    public Flux<TransactionView> findHistoryPage(HistoryPageRequest request) {
+        TransactionJdbcRepository.NamedQuery query = TransactionJdbcRepository.historyPageQuery(request);
+        return reactiveDatabaseClient.sql(query.sql())
+                .bindValues(query.parameters())
+                .map(row -> TransactionView.of(toTransaction(row)))
+                .all();
+    }
+
+    /**
+     * Applies a credit or debit in one round trip, see {@link TransactionRepository#applyEntry(Long, String, long, long, String)}.
+     *
+     * @param playerId              the player id
+     * @param type                  the transaction type
+     * @param amount                the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the outcome of the entry
+     */
+    public Mono<LedgerEntry> applyEntry(Long playerId, TransactionType type, long amount, UUID transactionIdentifier) {
+        long delta = type == TransactionType.DEBIT ? -amount : amount;
+        return reactiveDatabaseClient.sql(TransactionRepository.APPLY_ENTRY)
+                .bind("playerId", playerId)
+                .bind("type", type.name())
+                .bind("amount", amount)
+                .bind("delta", delta)
+                .bind("transactionIdentifier", transactionIdentifier.toString())
+                .map(row -> (LedgerEntry) new AppliedEntry(
+                        Boolean.TRUE.equals(row.get("playerFound", Boolean.class)),
+                        Boolean.TRUE.equals(row.get("duplicate", Boolean.class)),
+                        row.get("transactionId", Long.class),
+                        row.get("balanceBefore", Long.class),
+                        row.get("balanceAfter", Long.class)))
+                .one();
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        return Transaction.builder()
+                .transactionId(row.get("id", Long.class))
+                .type(TransactionType.valueOf(row.get("type", String.class)))
+                .amount(row.get("amount", Long.class))
+                .balanceBefore(row.get("balance_before", Long.class))
+                .balanceAfter(row.get("balance_after", Long.class))
+                .transactionIdentifier(UUID.fromString(row.get("transaction_identifier", String.class)))
+                .playerId(row.get("player_id", Long.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .build();
+    }
+
+    private record AppliedEntry(boolean playerFound, boolean duplicate, Long transactionId,
+                                Long balanceBefore, Long balanceAfter) implements LedgerEntry {
+
+        @Override
+        public boolean getPlayerFound() {
+            return playerFound;
+        }
+
+        @Override
+        public boolean getDuplicate() {
+            return duplicate;
+        }
+
+        @Override
+        public Long getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public Long getBalanceBefore() {
+            return balanceBefore;
+        }
+
+        @Override
+        public Long getBalanceAfter() {
+            return balanceAfter;
+        }
+    }
+}
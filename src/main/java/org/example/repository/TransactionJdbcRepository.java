@@ -0,0 +1,368 @@
+package org.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.HistoryPageRequest;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.repository.projection.LedgerBalance;
+import org.example.repository.projection.LockedBalance;
+import org.example.repository.projection.StatementTotal;
+import org.example.repository.projection.TransactionView;
+import org.example.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The {@code TransactionJdbcRepository} class holds the ledger statements that are issued through plain JDBC,
+ * mostly so that many rows can be written in one batched round trip. It takes part in the surrounding
+ * Spring-managed transaction like the JPA repositories.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionJdbcRepository {
+
+    /**
+     * Maps a row of {@code wallet.transactions} selected with all columns to the view returned by the history API.
+     */
+    private static final RowMapper<TransactionView> TRANSACTION_VIEW_ROW_MAPPER = (rs, rowNum) -> new TransactionView(
+            rs.getLong("id"),
+            rs.getString("type"),
+            Money.toDecimal(rs.getLong("balance_before")),
+            Money.toDecimal(rs.getLong("balance_after")),
+            Money.toDecimal(rs.getLong("amount")),
+            UUID.fromString(rs.getString("transaction_identifier")),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Locks the player row until the end of the current transaction and returns its balance.
+     *
+     * @param playerId the player id
+     * @return the player's balance, or empty if there is no such player
+     */
+    public Optional<LockedBalance> lockBalance(Long playerId) {
+        return jdbcTemplate.query(
+                "SELECT balance, reserved FROM wallet.players WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> new LockedBalance(rs.getLong("balance"), rs.getLong("reserved")),
+                playerId).stream().findFirst();
+    }
+
+    /**
+     * Locks the rows of several players until the end of the current transaction and returns their balances.
+     * The rows are locked in ascending id order, so two transactions locking the same players never deadlock.
+     *
+     * @param playerIds the player ids
+     * @return the balance of every existing player, by player id
+     */
+    public Map<Long, LockedBalance> lockBalances(Collection<Long> playerIds) {
+        Map<Long, LockedBalance> balances = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT id, balance, reserved FROM wallet.players WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                Map.of("ids", playerIds),
+                rs -> {
+                    balances.put(rs.getLong("id"), new LockedBalance(rs.getLong("balance"), rs.getLong("reserved")));
+                });
+        return balances;
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock on the player, without touching the player row. Writers of the
+     * event-sourced ledger take it to append to a player's log one at a time.
+     *
+     * @param playerId the player id
+     */
+    public void lockPlayer(Long playerId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+        }, playerId);
+    }
+
+    /**
+     * Folds the player's balance from the last snapshot and the transactions recorded after it.
+     *
+     * @param playerId the player id
+     * @return the folded balance, or empty if there is no such player
+     */
+    public Optional<LedgerBalance> foldBalance(Long playerId) {
+        return jdbcTemplate.query("""
+                        SELECT p.balance + COALESCE(SUM(CASE t.type WHEN 'CREDIT' THEN t.amount ELSE -t.amount END), 0)
+                                   AS balance,
+                               COUNT(t.id) AS entries
+                        FROM wallet.players p
+                        LEFT JOIN wallet.transactions t
+                            ON t.player_id = p.id AND t.id > p.snapshot_transaction_id
+                        WHERE p.id = ?
+                        GROUP BY p.id, p.balance
+                        """,
+                (rs, rowNum) -> new LedgerBalance(rs.getLong("balance"), rs.getInt("entries")),
+                playerId).stream().findFirst();
+    }
+
+    /**
+     * Stores a new balance snapshot of the player.
+     *
+     * @param playerId      the player id
+     * @param balance       the balance in minor units after the transaction
+     * @param transactionId the id of the last transaction included in the balance
+     */
+    public void checkpoint(Long playerId, long balance, long transactionId) {
+        jdbcTemplate.update(
+                "UPDATE wallet.players SET balance = ?, snapshot_transaction_id = ?, version = version + 1 WHERE id = ?",
+                balance, transactionId, playerId);
+    }
+
+    /**
+     * Recomputes the player's balance from the whole transaction log, starting from zero, and stores it
+     * as the new snapshot.
+     *
+     * @param playerId the player id
+     * @return the rebuilt balance in minor units, or empty if there is no such player
+     */
+    public Optional<Long> rebuildSnapshot(Long playerId) {
+        return jdbcTemplate.query("""
+                        UPDATE wallet.players p
+                        SET balance = f.balance,
+                            snapshot_transaction_id = f.last_id,
+                            version = p.version + 1
+                        FROM (SELECT COALESCE(SUM(CASE type WHEN 'CREDIT' THEN amount ELSE -amount END), 0) AS balance,
+                                     COALESCE(MAX(id), 0) AS last_id
+                              FROM wallet.transactions
+                              WHERE player_id = ?) f
+                        WHERE p.id = ?
+                        RETURNING p.balance
+                        """,
+                (rs, rowNum) -> rs.getLong("balance"),
+                playerId, playerId).stream().findFirst();
+    }
+
+    /**
+     * Reads one page of the player's transactions, newest first, by seeking below the last transaction id of the
+     * previous page. The cost of a page does not depend on how deep into the history it is.
+     *
+     * <p>Every condition on {@code created_at} lets PostgreSQL skip partitions: the requested range, the recording
+     * time of the last transaction of the previous page, as no older transaction of the player was recorded later,
+     * and the first day the daily rollups saw a transaction of the player.
+     *
+     * @param request the page request
+     * @return up to one transaction more than the page holds, newest first, as returned by the history API
+     */
+    public List<TransactionView> findHistoryPage(HistoryPageRequest request) {
+        NamedQuery query = historyPageQuery(request);
+        return namedParameterJdbcTemplate.query(query.sql(), query.parameters(), TRANSACTION_VIEW_ROW_MAPPER);
+    }
+
+    /**
+     * Builds the statement of {@link #findHistoryPage(HistoryPageRequest)}, which the reactive API runs through R2DBC.
+     *
+     * @param request the page request
+     * @return the statement with its named parameters
+     */
+    public static NamedQuery historyPageQuery(HistoryPageRequest request) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM wallet.transactions WHERE player_id = :playerId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("playerId", request.playerId());
+        parameters.put("limit", request.pageSize() + 1);
+        if (request.beforeId() != null) {
+            sql.append(" AND id < :beforeId");
+            parameters.put("beforeId", request.beforeId());
+        }
+        if (request.beforeCreatedAt() != null) {
+            sql.append(" AND created_at <= :beforeCreatedAt");
+            parameters.put("beforeCreatedAt", request.beforeCreatedAt().atOffset(ZoneOffset.UTC));
+        }
+        if (request.type() != null) {
+            sql.append(" AND type = :type");
+            parameters.put("type", request.type().name());
+        }
+        if (request.from() != null) {
+            sql.append(" AND created_at >= :from");
+            parameters.put("from", request.from().atOffset(ZoneOffset.UTC));
+        } else {
+            sql.append(" AND created_at >= ").append(TransactionRepository.FIRST_RECORDED_DAY);
+        }
+        if (request.to() != null) {
+            sql.append(" AND created_at < :to");
+            parameters.put("to", request.to().atOffset(ZoneOffset.UTC));
+        }
+        sql.append(" ORDER BY id DESC LIMIT :limit");
+        return new NamedQuery(sql.toString(), parameters);
+    }
+
+    /**
+     * Reads all transactions of the player, oldest first, through a forward-only cursor, handing them to the consumer
+     * one at a time. Only {@code fetchSize} rows are held in memory at once. PostgreSQL only opens a cursor inside a
+     * transaction, so this must run in one.
+     *
+     * @param playerId  the player id
+     * @param fetchSize the number of rows fetched per round trip
+     * @param consumer  the consumer of the transactions
+     */
+    public void streamHistory(Long playerId, int fetchSize, Consumer<TransactionView> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT * FROM wallet.transactions WHERE player_id = ? ORDER BY id",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, playerId);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(TRANSACTION_VIEW_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Adds up the player's daily rollups over a range of days. The cost depends on the number of days in the range,
+     * not on the number of transactions in it.
+     *
+     * @param playerId the player id
+     * @param from     the first day, inclusive, in UTC
+     * @param to       the last day, inclusive, in UTC
+     * @return the totals of every transaction type that occurred in the range
+     */
+    public Map<TransactionType, StatementTotal> sumDailyRollups(Long playerId, LocalDate from, LocalDate to) {
+        Map<TransactionType, StatementTotal> totals = new EnumMap<>(TransactionType.class);
+        jdbcTemplate.query("""
+                        SELECT type, SUM(count) AS count, SUM(amount) AS amount
+                        FROM wallet.transaction_daily_rollups
+                        WHERE player_id = ? AND day BETWEEN ? AND ?
+                        GROUP BY type
+                        """,
+                rs -> {
+                    totals.put(TransactionType.valueOf(rs.getString("type")),
+                            new StatementTotal(rs.getLong("count"), rs.getLong("amount")));
+                },
+                playerId, from, to);
+        return totals;
+    }
+
+    /**
+     * Finds which of the given transaction identifiers have already been recorded.
+     *
+     * @param transactionIdentifiers the transaction identifiers to look up
+     * @return the identifiers that already exist
+     */
+    public Set<UUID> findExistingIdentifiers(Collection<UUID> transactionIdentifiers) {
+        Set<UUID> existing = new HashSet<>();
+        if (transactionIdentifiers.isEmpty()) {
+            return existing;
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT transaction_identifier FROM wallet.transaction_identifiers WHERE transaction_identifier IN (:identifiers)",
+                Map.of("identifiers", transactionIdentifiers.stream().map(UUID::toString).toList()),
+                rs -> {
+                    existing.add(UUID.fromString(rs.getString("transaction_identifier")));
+                });
+        return existing;
+    }
+
+    /**
+     * Returns the identifiers of the most recently inserted transactions.
+     *
+     * @param limit the maximum number of identifiers
+     * @return the identifiers, newest first
+     */
+    public List<UUID> findRecentIdentifiers(int limit) {
+        return jdbcTemplate.query(
+                "SELECT transaction_identifier FROM wallet.transactions ORDER BY id DESC LIMIT ?",
+                (rs, rowNum) -> UUID.fromString(rs.getString("transaction_identifier")),
+                limit);
+    }
+
+    /**
+     * Inserts all transactions in one JDBC batch.
+     *
+     * @param transactions the transactions to insert
+     */
+    public void insertAll(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO wallet.transactions
+                            (type, amount, balance_before, balance_after, transaction_identifier, player_id)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                transactions,
+                transactions.size(),
+                (ps, transaction) -> {
+                    ps.setString(1, transaction.getType().name());
+                    ps.setLong(2, transaction.getAmount());
+                    ps.setLong(3, transaction.getBalanceBefore());
+                    ps.setLong(4, transaction.getBalanceAfter());
+                    ps.setString(5, transaction.getTransactionIdentifier().toString());
+                    ps.setLong(6, transaction.getPlayerId());
+                });
+    }
+
+    /**
+     * Inserts all transactions in one JDBC batch, skipping those whose identifier is already recorded. Identifiers
+     * are unique across partitions only through {@code transaction_identifiers}, so that is where they are checked;
+     * callers must not insert the same identifier concurrently.
+     *
+     * @param transactions the transactions to insert
+     */
+    public void insertAllIfAbsent(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO wallet.transactions
+                            (type, amount, balance_before, balance_after, transaction_identifier, player_id)
+                        SELECT ?, ?, ?, ?, ?, ?
+                        WHERE NOT EXISTS (SELECT 1 FROM wallet.transaction_identifiers WHERE transaction_identifier = ?)
+                        """,
+                transactions,
+                transactions.size(),
+                (ps, transaction) -> {
+                    ps.setString(1, transaction.getType().name());
+                    ps.setLong(2, transaction.getAmount());
+                    ps.setLong(3, transaction.getBalanceBefore());
+                    ps.setLong(4, transaction.getBalanceAfter());
+                    ps.setString(5, transaction.getTransactionIdentifier().toString());
+                    ps.setLong(6, transaction.getPlayerId());
+                    ps.setString(7, transaction.getTransactionIdentifier().toString());
+                });
+    }
+
+    /**
+     * Overwrites the balances of several players in one JDBC batch.
+     *
+     * @param balances the new balance in minor units of every player, by player id
+     */
+    public void updateBalances(Map<Long, Long> balances) {
+        List<Map.Entry<Long, Long>> entries = List.copyOf(balances.entrySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE wallet.players SET balance = ?, version = version + 1 WHERE id = ?",
+                entries,
+                entries.size(),
+                (ps, entry) -> {
+                    ps.setLong(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                });
+    }
+
+    /**
+     * A statement with named parameters, as both {@link NamedParameterJdbcTemplate} and the R2DBC
+     * {@link org.springframework.r2dbc.core.DatabaseClient} take it.
+     *
+     * @param sql        the statement
+     * @param parameters the values of its parameters, by name
+     */
+    public record NamedQuery(String sql, Map<String, Object> parameters) {
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The {@code TransactionPartitionRepository} class holds the statements that maintain the partitions of
+ * {@code wallet.transactions} and read the detached ones out. Partition names are built by the caller and must be
+ * trusted identifiers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lists the partitions currently attached to {@code wallet.transactions}.
+     *
+     * @return the partition table names, without schema
+     */
+    public List<String> findAttachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'wallet.transactions'::regclass
+                """, String.class);
+    }
+
+    /**
+     * Lists the former partitions of {@code wallet.transactions} that have been detached and are still in the
+     * database.
+     *
+     * @return the table names, without schema, oldest first
+     */
+    public List<String> findDetachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_class c
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'wallet'
+                  AND c.relkind = 'r'
+                  AND NOT c.relispartition
+                  AND c.relname ~ '^transactions_y[0-9]{4}m[0-9]{2}$'
+                ORDER BY c.relname
+                """, String.class);
+    }
+
+    /**
+     * Reads all transactions of a detached partition, sorted by player and id, through a forward-only cursor. Only
+     * {@code fetchSize} rows are held in memory at once. PostgreSQL only opens a cursor inside a transaction, so this
+     * must run in one.
+     *
+     * @param name      the table name, without schema
+     * @param fetchSize the number of rows fetched per round trip
+     * @param consumer  the consumer of the transactions
+     */
+    public void streamPartition(String name, int fetchSize, Consumer<Transaction> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT * FROM wallet." + name + " ORDER BY player_id, id",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(Transaction.builder()
+                        .transactionId(rs.getLong("id"))
+                        .type(TransactionType.valueOf(rs.getString("type")))
+                        .amount(rs.getLong("amount"))
+                        .balanceBefore(rs.getLong("balance_before"))
+                        .balanceAfter(rs.getLong("balance_after"))
+                        .transactionIdentifier(UUID.fromString(rs.getString("transaction_identifier")))
+                        .playerId(rs.getLong("player_id"))
+                        .createdAt(rs.getObject("created_at", OffsetDateTime.class).toInstant())
+                        .build()));
+    }
+
+    /**
+     * Takes the lock under which one instance at a time archives a detached partition. The lock is held until the
+     * current transaction ends, so this must run in one.
+     *
+     * @param name the table name, without schema
+     * @return whether the lock was taken; {@code false} while another instance holds it
+     */
+    public boolean tryLockPartition(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('wallet.transactions'), hashtext(?))", Boolean.class, name));
+    }
+
+    /**
+     * Tells whether a table, such as a detached partition, is still in the {@code wallet} schema.
+     *
+     * @param name the table name, without schema
+     * @return whether the table exists
+     */
+    public boolean tableExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, "wallet." + name));
+    }
+
+    /**
+     * Drops a detached partition.
+     *
+     * @param name the table name, without schema
+     */
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE wallet." + name);
+    }
+
+    /**
+     * Creates a partition for {@code [from, to)} unless a table with that name already exists.
+     *
+     * @param name the partition table name, without schema
+     * @param from the inclusive lower bound of {@code created_at}
+     * @param to   the exclusive upper bound of {@code created_at}
+     */
+    public void createPartition(String name, Instant from, Instant to) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS wallet." + name
+                + " PARTITION OF wallet.transactions FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * Detaches a partition without blocking reads and writes of the other partitions. The statement cannot run in a
+     * transaction block, so this must not be called inside a Spring-managed transaction.
+     *
+     * @param name the partition table name, without schema
+     */
+    public void detachPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE wallet.transactions DETACH PARTITION wallet." + name + " CONCURRENTLY");
+    }
+}
@@ -1,7 +1,12 @@
 package org.example.repository;
 
 import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.repository.projection.LedgerEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,8 +14,118 @@ import java.util.UUID;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    List<Transaction> findAllByPlayerId(Long playerId);
+    /**
+     * The single-statement credit or debit behind {@link #applyEntry(Long, String, long, long, String)}, shared with
+     * the reactive ledger so that both stacks apply the same rules.
+     */
+    String APPLY_ENTRY = """
+            WITH player AS (
+                SELECT id FROM wallet.players WHERE id = :playerId
+            ), duplicate AS (
+                SELECT transaction_id FROM wallet.transaction_identifiers WHERE transaction_identifier = :transactionIdentifier
+            ), updated AS (
+                UPDATE wallet.players p
+                SET balance = p.balance + :delta,
+                    version = p.version + 1
+                WHERE p.id = :playerId
+                  AND p.balance - p.reserved >= -(:delta)
+                  AND p.balance <= 9223372036854775807 - GREATEST(:delta, 0)
+                  AND NOT EXISTS (SELECT 1 FROM duplicate)
+                RETURNING p.id, p.balance - :delta AS balance_before, p.balance AS balance_after
+            ), inserted AS (
+                INSERT INTO wallet.transactions (type, amount, balance_before, balance_after, transaction_identifier, player_id)
+                SELECT :type, :amount, u.balance_before, u.balance_after, :transactionIdentifier, u.id
+                FROM updated u
+                RETURNING id, balance_before, balance_after
+            )
+            SELECT EXISTS (SELECT 1 FROM player) AS "playerFound",
+                   EXISTS (SELECT 1 FROM duplicate) AS "duplicate",
+                   i.id AS "transactionId",
+                   i.balance_before AS "balanceBefore",
+                   i.balance_after AS "balanceAfter"
+            FROM (SELECT 1) AS one
+            LEFT JOIN inserted i ON TRUE
+            """;
 
-    Optional<Transaction> findByTransactionIdentifier(UUID transactionIdentifier);
+    /**
+     * The start of the first UTC day on which the player {@code :playerId} had a transaction, taken from the daily
+     * rollups, which also count archived transactions. As a lower bound on {@code created_at} it lets PostgreSQL skip
+     * the partitions from before the player's first transaction when the statement runs.
+     */
+    String FIRST_RECORDED_DAY = """
+            (SELECT CAST(MIN(day) AS TIMESTAMP) AT TIME ZONE 'UTC'
+             FROM wallet.transaction_daily_rollups
+             WHERE player_id = :playerId)""";
+
+    /**
+     * Finds all of the player's transactions in the database, oldest first, reading only the partitions from the
+     * player's first transaction on.
+     *
+     * @param playerId the player id
+     * @return the transactions
+     */
+    @Query(value = "SELECT * FROM wallet.transactions WHERE player_id = :playerId AND created_at >= "
+            + FIRST_RECORDED_DAY + " ORDER BY id", nativeQuery = true)
+    List<Transaction> findAllByPlayerId(@Param("playerId") Long playerId);
+
+    /**
+     * Finds the transaction by its identifier, reading only the partition it was recorded in.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction, or empty if the identifier was not used or its partition is detached
+     */
+    default Optional<Transaction> findByTransactionIdentifier(UUID transactionIdentifier) {
+        return findByTransactionIdentifier(transactionIdentifier.toString());
+    }
+
+    /**
+     * Finds the transaction by its identifier. The partition key is taken from {@code transaction_identifiers}, so
+     * the lookup of the transaction is pruned to one partition.
+     *
+     * @param transactionIdentifier the transaction identifier
+     * @return the transaction, or empty if the identifier was not used or its partition is detached
+     */
+    @Query(value = """
+            SELECT t.*
+            FROM wallet.transaction_identifiers i
+            JOIN wallet.transactions t ON t.id = i.transaction_id AND t.created_at = i.created_at
+            WHERE i.transaction_identifier = :transactionIdentifier
+            """, nativeQuery = true)
+    Optional<Transaction> findByTransactionIdentifier(@Param("transactionIdentifier") String transactionIdentifier);
+
+    /**
+     * Applies a credit or debit in one round trip, see {@link #applyEntry(Long, String, long, long, String)}.
+     *
+     * @param playerId              the player id
+     * @param type                  the transaction type
+     * @param amount                the amount of transaction in minor units
+     * @param transactionIdentifier the transaction identifier
+     * @return the outcome of the entry
+     */
+    default LedgerEntry applyEntry(Long playerId, TransactionType type, long amount, UUID transactionIdentifier) {
+        long delta = type == TransactionType.DEBIT ? -amount : amount;
+        return applyEntry(playerId, type.name(), amount, delta, transactionIdentifier.toString());
+    }
+
+    /**
+     * Applies a credit or debit in one round trip: checks the identifier for duplicates, moves the balance
+     * only if it stays above the amount reserved by holds and below the {@code bigint} limit, and inserts the transaction row with the balances computed by the database.
+     * The row lock taken by the update serialises concurrent entries for the same player. The conditions are written
+     * so that no intermediate value overflows: a credit past the limit writes nothing instead of failing the statement.
+     *
+     * @param playerId              the player id
+     * @param type                  the transaction type name
+     * @param amount                the amount of transaction in minor units
+     * @param delta                 the signed balance change in minor units, negative for debits
+     * @param transactionIdentifier the transaction identifier
+     * @return the outcome of the entry
+     */
+    @Transactional
+    @Query(value = APPLY_ENTRY, nativeQuery = true)
+    LedgerEntry applyEntry(@Param("playerId") Long playerId,
+                           @Param("type") String type,
+                           @Param("amount") long amount,
+                           @Param("delta") long delta,
+                           @Param("transactionIdentifier") String transactionIdentifier);
 
 }
@@ -0,0 +1,10 @@
+package org.example.repository.projection;
+
+/**
+ * A player's balance folded from the last snapshot and the transactions recorded after it.
+ *
+ * @param balance              the balance in minor units
+ * @param entriesSinceSnapshot the number of transactions recorded after the snapshot
+ */
+public record LedgerBalance(long balance, int entriesSinceSnapshot) {
+}
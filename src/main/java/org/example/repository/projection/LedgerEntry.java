@@ -0,0 +1,32 @@
+package org.example.repository.projection;
+
+/**
+ * The result of a single-statement ledger write, as computed by the database.
+ */
+public interface LedgerEntry {
+
+    /**
+     * Whether the player the entry was addressed to exists.
+     */
+    boolean getPlayerFound();
+
+    /**
+     * Whether a transaction with the same identifier had already been recorded.
+     */
+    boolean getDuplicate();
+
+    /**
+     * The identifier of the inserted transaction row, or {@code null} if nothing was written.
+     */
+    Long getTransactionId();
+
+    /**
+     * The player's balance in minor units before the entry was applied, or {@code null} if nothing was written.
+     */
+    Long getBalanceBefore();
+
+    /**
+     * The player's balance in minor units after the entry was applied, or {@code null} if nothing was written.
+     */
+    Long getBalanceAfter();
+}
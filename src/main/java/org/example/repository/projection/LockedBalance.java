@@ -0,0 +1,17 @@
+package org.example.repository.projection;
+
+/**
+ * A player's balance as read under the lock of the player row.
+ *
+ * @param balance  the balance in minor units
+ * @param reserved the part of the balance reserved by active holds, in minor units
+ */
+public record LockedBalance(long balance, long reserved) {
+
+    /**
+     * The part of the balance that debits may use.
+     */
+    public long available() {
+        return balance - reserved;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.repository.projection;
+
+/**
+ * The public part of a player, selected without loading the entity.
+ *
+ * @param id       the player id
+ * @param username the username
+ * @param balance  the balance in minor units
+ */
+public record PlayerSummary(Long id, String username, long balance) {
+
+    /**
+     * Returns the same player with another balance.
+     *
+     * @param balance the balance in minor units
+     * @return the summary with the balance replaced
+     */
+    public PlayerSummary withBalance(long balance) {
+        return new PlayerSummary(id, username, balance);
+    }
+}
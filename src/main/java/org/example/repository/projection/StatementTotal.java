@@ -0,0 +1,10 @@
+package org.example.repository.projection;
+
+/**
+ * The number and the sum of a player's transactions of one type over a range of days.
+ *
+ * @param count  the number of transactions
+ * @param amount the sum of their amounts in minor units
+ */
+public record StatementTotal(long count, long amount) {
+}
@@ -0,0 +1,47 @@
+package org.example.repository.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.core.domain.Transaction;
+import org.example.util.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A transaction as the history API returns it, selected straight from the row without loading the entity.
+ * Serialises to the same JSON as {@link org.example.dto.TransactionResponse}.
+ *
+ * @param id                    the transaction id, used for paging only
+ * @param type                  the transaction type
+ * @param balanceBefore         the balance before the transaction
+ * @param balanceAfter          the balance after the transaction
+ * @param amount                the amount of the transaction
+ * @param transactionIdentifier the transaction identifier
+ * @param createdAt             the time the transaction was recorded
+ */
+public record TransactionView(@JsonIgnore long id,
+                              String type,
+                              BigDecimal balanceBefore,
+                              BigDecimal balanceAfter,
+                              BigDecimal amount,
+                              UUID transactionIdentifier,
+                              Instant createdAt) {
+
+    /**
+     * Creates the view of a transaction that was loaded as an entity, such as one read from the archive.
+     *
+     * @param transaction the transaction
+     * @return the view of the transaction
+     */
+    public static TransactionView of(Transaction transaction) {
+        return new TransactionView(
+                transaction.getTransactionId(),
+                transaction.getType().name(),
+                Money.toDecimal(transaction.getBalanceBefore()),
+                Money.toDecimal(transaction.getBalanceAfter()),
+                Money.toDecimal(transaction.getAmount()),
+                transaction.getTransactionIdentifier(),
+                transaction.getCreatedAt());
+    }
+}
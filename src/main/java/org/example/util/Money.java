@@ -0,0 +1,88 @@
+package org.example.util;
+
+import org.example.exception.TransactionOperationException;
+
+import java.math.BigDecimal;
+import java.util.OptionalLong;
+
+/**
+ * The {@code Money} class converts between the decimal amounts of the API and the minor units the ledger works with.
+ * Balances and amounts are kept as {@code long} counts of the smallest unit of the wallet currency, so credits and
+ * debits are plain checked integer arithmetic. Decimal values only appear at the JSON boundary.
+ */
+public final class Money {
+
+    /**
+     * The number of decimal places of the wallet currency.
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units.
+     *
+     * @param amount the decimal amount
+     * @return the amount in minor units
+     * @throws TransactionOperationException if the amount has more decimal places than {@link #SCALE}
+     *                                       or does not fit into a {@code long}
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new TransactionOperationException("The amount " + amount.toPlainString() + " is not a valid amount.");
+        }
+    }
+
+    /**
+     * Converts the decimal amount of a credit or debit to minor units.
+     *
+     * @param amount the decimal amount
+     * @return the amount in minor units, or empty if the amount is not positive, has more decimal places than
+     * {@link #SCALE} or does not fit into a {@code long}
+     */
+    public static OptionalLong toPositiveMinorUnits(BigDecimal amount) {
+        try {
+            long minorUnits = amount.movePointRight(SCALE).longValueExact();
+            return minorUnits > 0 ? OptionalLong.of(minorUnits) : OptionalLong.empty();
+        } catch (ArithmeticException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Converts minor units to a decimal amount with {@link #SCALE} decimal places.
+     *
+     * @param minorUnits the amount in minor units
+     * @return the decimal amount
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Adds two amounts in minor units.
+     *
+     * @throws TransactionOperationException if the sum overflows
+     */
+    public static long add(long augend, long addend) {
+        try {
+            return Math.addExact(augend, addend);
+        } catch (ArithmeticException e) {
+            throw new TransactionOperationException("The balance limit is exceeded.");
+        }
+    }
+
+    /**
+     * Checks whether adding two amounts in minor units would overflow.
+     *
+     * @param augend the balance, not negative
+     * @param addend the amount to add, not negative
+     * @return {@code true} if {@link #add(long, long)} would throw
+     */
+    public static boolean exceedsLimit(long augend, long addend) {
+        return addend > Long.MAX_VALUE - augend;
+    }
+}
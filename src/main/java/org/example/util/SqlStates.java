@@ -0,0 +1,39 @@
+package org.example.util;
+
+import io.r2dbc.spi.R2dbcException;
+
+import java.sql.SQLException;
+
+/**
+ * The {@code SqlStates} class inspects the SQLState behind a translated data access exception. Spring reports a
+ * unique violation, a check violation and an arithmetic error of a statement alike as a
+ * {@code DataIntegrityViolationException}, so only the driver exception in the cause chain tells them apart.
+ */
+public final class SqlStates {
+
+    /**
+     * The SQLState PostgreSQL reports for a unique violation.
+     */
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    private SqlStates() {
+    }
+
+    /**
+     * Checks whether the failure was caused by a unique violation.
+     *
+     * @param failure the failure, usually a translated data access exception
+     * @return {@code true} if the first JDBC or R2DBC exception in the cause chain reports {@link #UNIQUE_VIOLATION}
+     */
+    public static boolean isUniqueViolation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException e) {
+                return UNIQUE_VIOLATION.equals(e.getSQLState());
+            }
+            if (cause instanceof R2dbcException e) {
+                return UNIQUE_VIOLATION.equals(e.getSqlState());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code ArchiveProperties} class holds the settings of the transaction archive, bound from
+ * {@code app.wallet.archive} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.archive")
+public class ArchiveProperties {
+
+    /**
+     * Whether this instance moves detached partitions of {@code wallet.transactions} into segment files. Only one
+     * instance needs to; several take turns on each partition. Which partitions get detached is set by
+     * {@code app.wallet.partitions.retention-months}. Cannot be used with the event-sourced ledger, whose balances are
+     * folded from the database alone; the service refuses to start otherwise.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The directory of the segment files. Every instance serves the history from it, so with several instances it
+     * has to be shared storage.
+     */
+    private String directory = "archive";
+
+    /**
+     * How often detached partitions are looked for.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+
+    /**
+     * How often every instance looks for segments in the directory that it does not serve yet, such as those another
+     * instance archived. The archiver drops a partition only once its segment is older than twice this interval.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * How many rows the archiver fetches from a detached partition per round trip.
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * The maximum number of transactions in a block of a segment, the unit that is inflated on reads.
+     */
+    private int blockSize = 4096;
+}
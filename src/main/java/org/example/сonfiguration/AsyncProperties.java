@@ -0,0 +1,53 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code AsyncProperties} class holds the settings of asynchronous transaction submission, bound from
+ * {@code app.wallet.async} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.async")
+public class AsyncProperties {
+
+    /**
+     * How many worker threads of this instance apply queued transactions.
+     */
+    private int workers = 4;
+
+    /**
+     * How many queued transactions a worker claims at once.
+     */
+    private int claimBatchSize = 10;
+
+    /**
+     * How long an idle worker waits before it looks at the queue again.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * After how long an unfinished claim is considered abandoned and the transaction is claimed again.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    /**
+     * How many times a transaction is claimed before a transient failure is reported as its outcome.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * How long completed and failed transactions stay in the queue table, where a resubmission with the same identifier
+     * is answered from them. Zero keeps them forever.
+     */
+    private Duration completedRetention = Duration.ofDays(7);
+
+    /**
+     * How often a worker of this instance deletes the completed and failed transactions past their retention.
+     */
+    private Duration cleanupInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,39 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code BalanceCacheProperties} class holds the settings of the in-process player balance cache, bound from
+ * {@code app.wallet.balance-cache} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.balance-cache")
+public class BalanceCacheProperties {
+
+    /**
+     * Whether balance reads are served from the cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of players the cache holds; a segment evicts its least recently used player beyond its share.
+     */
+    private int maximumSize = 100_000;
+
+    /**
+     * The number of independently locked segments the players are spread over, rounded up to a power of two. Each
+     * segment holds its share of the maximum size.
+     */
+    private int segments = 16;
+
+    /**
+     * How long a balance is served after it was loaded or written. It bounds how stale a balance can be after a
+     * change this instance did not make, such as one made by another instance.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+}
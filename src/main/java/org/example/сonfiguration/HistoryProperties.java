@@ -0,0 +1,30 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The {@code HistoryProperties} class holds the settings of the transaction history API, bound from
+ * {@code app.wallet.history} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.history")
+public class HistoryProperties {
+
+    /**
+     * How many transactions a page holds when the request does not say.
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * The largest page a request may ask for.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * How many rows the history export fetches from its database cursor per round trip.
+     */
+    private int exportFetchSize = 1000;
+}
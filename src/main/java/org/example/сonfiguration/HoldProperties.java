@@ -0,0 +1,47 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code HoldProperties} class holds the settings of funds holds and of the timer wheel that expires them, bound
+ * from {@code app.wallet.holds} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.holds")
+public class HoldProperties {
+
+    /**
+     * How long a hold lives when the request does not say.
+     */
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    /**
+     * The longest time a hold may live.
+     */
+    private Duration maxTtl = Duration.ofHours(1);
+
+    /**
+     * The resolution of the timer wheel; a hold expires up to one tick late.
+     */
+    private Duration tickDuration = Duration.ofMillis(100);
+
+    /**
+     * The number of buckets of the timer wheel.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * How many threads release expired holds.
+     */
+    private int expiryThreads = 2;
+
+    /**
+     * The delay before releasing an expired hold is attempted again after a database failure.
+     */
+    private Duration expiryRetryDelay = Duration.ofSeconds(1);
+}
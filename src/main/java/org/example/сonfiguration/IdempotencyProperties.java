@@ -0,0 +1,30 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The {@code IdempotencyProperties} class holds the sizing of the in-process transaction identifier filter, bound from
+ * {@code app.wallet.idempotency} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How many identifiers one generation of the bloom filter holds at the target false positive rate.
+     */
+    private int expectedInsertions = 1_000_000;
+
+    /**
+     * The target false positive rate of the bloom filter.
+     */
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * How many recent transactions are kept to answer replayed requests without the database.
+     */
+    private int recentCacheSize = 10_000;
+}
@@ -0,0 +1,16 @@
+package org.example.сonfiguration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@code LedgerConfig} class registers the ledger, idempotency, hold, asynchronous submission, history,
+ * partition, archive, read replica and balance cache settings of the wallet service.
+ */
+@Configuration
+@EnableConfigurationProperties({
+        LedgerProperties.class, IdempotencyProperties.class, HoldProperties.class, AsyncProperties.class,
+        HistoryProperties.class, PartitionProperties.class, ArchiveProperties.class, ReplicaProperties.class,
+        BalanceCacheProperties.class})
+public class LedgerConfig {
+}
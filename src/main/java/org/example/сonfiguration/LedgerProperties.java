@@ -0,0 +1,191 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.core.journal.FsyncPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The {@code LedgerProperties} class holds the settings of the credit/debit write path, bound from
+ * {@code app.wallet.ledger} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.ledger")
+public class LedgerProperties {
+
+    /**
+     * The write path used by credit and debit transactions.
+     */
+    private Mode mode = Mode.ATOMIC;
+
+    /**
+     * Settings of the optimistic write path.
+     */
+    private Optimistic optimistic = new Optimistic();
+
+    /**
+     * Settings of the sharded in-memory write path.
+     */
+    private Sharded sharded = new Sharded();
+
+    /**
+     * Settings of the group commit stage of the atomic write path.
+     */
+    private GroupCommit groupCommit = new GroupCommit();
+
+    /**
+     * Settings of the event-sourced write path.
+     */
+    private EventSourced eventSourced = new EventSourced();
+
+    /**
+     * The available write paths.
+     */
+    public enum Mode {
+        /**
+         * A single conditional statement per entry; concurrent entries wait on the player row lock.
+         */
+        ATOMIC,
+
+        /**
+         * Read-modify-write against a versioned player row, retried on conflicts.
+         */
+        OPTIMISTIC,
+
+        /**
+         * Balances owned in memory by single-writer shards and persisted asynchronously.
+         */
+        SHARDED,
+
+        /**
+         * The transaction log is the source of truth; player balances are periodic snapshots of it.
+         */
+        EVENT_SOURCED
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Optimistic {
+        /**
+         * How many times a conflicting entry is attempted before it is aborted.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * The backoff ceiling before the second attempt; it doubles on every further attempt.
+         */
+        private Duration initialBackoff = Duration.ofMillis(5);
+
+        /**
+         * The upper bound of the backoff ceiling.
+         */
+        private Duration maxBackoff = Duration.ofMillis(100);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Sharded {
+        /**
+         * The number of shards, each owned by one worker thread; defaults to the number of processors.
+         */
+        private int shards = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * How many entries may wait in a shard's queue before callers are blocked.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * The delay between attempts to persist an entry after a database failure.
+         */
+        private Duration persistRetryDelay = Duration.ofSeconds(1);
+
+        /**
+         * The maximum number of entries a shard applies, journals and acknowledges together.
+         */
+        private int maxDrainSize = 256;
+
+        /**
+         * The maximum number of entries written to the database in one batch.
+         */
+        private int flushBatchSize = 500;
+
+        /**
+         * Settings of the write-ahead journal of the shards.
+         */
+        private Journal journal = new Journal();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Journal {
+        /**
+         * Whether entries are acknowledged only once they are durable in the local journal.
+         */
+        private boolean enabled;
+
+        /**
+         * The directory of the journal segments.
+         */
+        private Path directory = Path.of("journal");
+
+        /**
+         * The size of a journal segment file.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * When journaled entries are forced to the storage device.
+         */
+        private FsyncPolicy fsync = FsyncPolicy.BATCH;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class GroupCommit {
+        /**
+         * Whether concurrent atomic entries are committed together.
+         */
+        private boolean enabled;
+
+        /**
+         * How long the first entry of a group waits for more entries to join it.
+         */
+        private Duration window = Duration.ofMillis(2);
+
+        /**
+         * The maximum number of entries committed together.
+         */
+        private int maxBatchSize = 64;
+
+        /**
+         * How many entries may wait for a commit before callers are blocked.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class EventSourced {
+        /**
+         * After how many transactions of a player its balance snapshot is checkpointed.
+         */
+        private int snapshotInterval = 100;
+
+        /**
+         * How many players are rebuilt from the log at the same time; defaults to the number of processors.
+         */
+        private int rebuildParallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Whether the snapshots of all players are rebuilt from the log when the application starts.
+         */
+        private boolean rebuildOnStartup;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code PartitionProperties} class holds the settings of the monthly partitions of {@code wallet.transactions},
+ * bound from {@code app.wallet.partitions} in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.partitions")
+public class PartitionProperties {
+
+    /**
+     * Whether this instance creates and detaches partitions. Running it on every instance is safe.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How many months after the current one must already have a partition. Inserts fail once they reach a month
+     * without one, so this has to outlast any period the maintenance may not run.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * How many whole months before the current one stay attached; older partitions are detached and left in place
+     * as standalone tables. Zero keeps every partition attached. Must stay zero with the event-sourced ledger, whose
+     * balances and snapshot rebuilds are folded from the whole transaction log; the service refuses to start otherwise.
+     */
+    private int retentionMonths = 0;
+
+    /**
+     * How often the partitions are checked.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+}
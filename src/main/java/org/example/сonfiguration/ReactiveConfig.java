@@ -0,0 +1,68 @@
+package org.example.сonfiguration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * The {@code ReactiveConfig} class sets up the reactive variant of the player API, which is served instead of the
+ * servlet one when {@code spring.main.web-application-type} is {@code reactive}.
+ *
+ * <p>Requests are handled on Netty, and the player endpoints reach PostgreSQL through an R2DBC pool configured by the
+ * {@code spring.r2dbc} properties. The pool is deliberately not a {@code ConnectionFactory} bean: that would switch
+ * off the JDBC data source the rest of the service still runs on.
+ *
+ * <p>The reactive endpoints apply the rules of the atomic ledger, so any other {@code app.wallet.ledger.mode} is
+ * rejected at startup.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig {
+
+    private ConnectionPool connectionPool;
+
+    public ReactiveConfig(LedgerProperties ledgerProperties) {
+        if (ledgerProperties.getMode() != LedgerProperties.Mode.ATOMIC) {
+            throw new IllegalStateException(
+                    "The reactive player API requires the atomic ledger, not " + ledgerProperties.getMode());
+        }
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(R2dbcProperties r2dbcProperties) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcProperties.getUrl())
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
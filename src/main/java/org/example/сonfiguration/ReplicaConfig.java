@@ -0,0 +1,72 @@
+package org.example.сonfiguration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.example.core.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code ReplicaConfig} class replaces the data source of the service with one that sends read-only transactions
+ * to the read replicas in {@code app.wallet.replicas.nodes} and everything else to the primary.
+ *
+ * <p>The primary pool is configured by {@code spring.datasource} as before. The pools are not beans of their own,
+ * so that the JPA, JDBC and Liquibase setup keeps finding exactly one data source.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.wallet.replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                 Environment environment) {
+        if (replicaProperties.getNodes().isEmpty()) {
+            throw new IllegalStateException("app.wallet.replicas.enabled requires at least one node");
+        }
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = replicaProperties.getNodes().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername());
+            replica.setPassword(node.getPassword());
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            // a replica that is down must not stop the service from starting
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, replicaProperties.getMaxLag());
+        routingDataSource.start(replicaProperties.getLagCheckInterval());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @PreDestroy
+    void close() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.сonfiguration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code ReplicaProperties} class holds the settings of the read replicas, bound from {@code app.wallet.replicas}
+ * in {@code application.yml}.
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "app.wallet.replicas")
+public class ReplicaProperties {
+
+    /**
+     * Whether read-only transactions are sent to the replicas. When off, everything runs on the primary data source.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The staleness a read may have. A replica whose replay lag exceeds it gets no reads until it catches up. Reads
+     * on a replica may miss writes made up to this long ago, such as a player registered just before.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the replay lag of every replica is measured.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a read waits for a replica connection before it falls back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * The size of the connection pool of each replica.
+     */
+    private int maximumPoolSize = 20;
+
+    /**
+     * The replicas, tried in turn.
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Node {
+
+        /**
+         * The JDBC URL of the replica.
+         */
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
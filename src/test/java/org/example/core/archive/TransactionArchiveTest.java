@@ -0,0 +1,67 @@
+package org.example.core.archive;
+
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.example.сonfiguration.ArchiveProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void refreshServesSegmentsWrittenElsewhere() throws IOException {
+        ArchiveProperties archiveProperties = new ArchiveProperties();
+        archiveProperties.setDirectory(directory.toString());
+        TransactionArchive archive = new TransactionArchive(archiveProperties);
+        try {
+            assertEquals(0, archive.refresh());
+            // as another instance sharing the directory would archive it
+            writeSegment("transactions_y2026m01", transaction(1), transaction(2));
+            Files.createFile(directory.resolve("transactions_y2026m02" + TransactionSegment.EXTENSION + ".tmp"));
+
+            assertEquals(1, archive.refresh());
+            assertEquals(0, archive.refresh());
+            List<Transaction> page = archive.findHistoryPage(7L, null, null, null, null, 10);
+            assertEquals(List.of(transaction(2), transaction(1)), page);
+            assertTrue(archive.findHistoryPage(7L, 1L, null, null, null, 10).isEmpty());
+        } finally {
+            archive.close();
+        }
+    }
+
+    private void writeSegment(String name, Transaction... transactions) throws IOException {
+        try (TransactionSegmentWriter writer = new TransactionSegmentWriter(
+                directory.resolve(name + TransactionSegment.EXTENSION), 4)) {
+            for (Transaction transaction : transactions) {
+                writer.append(transaction);
+            }
+            writer.finish();
+        }
+    }
+
+    private static Transaction transaction(long id) {
+        return Transaction.builder()
+                .transactionId(id)
+                .type(TransactionType.CREDIT)
+                .playerId(7L)
+                .amount(100)
+                .balanceBefore(100 * (id - 1))
+                .balanceAfter(100 * id)
+                .transactionIdentifier(new UUID(id, ~id))
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(id))
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.core.archive;
+
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TransactionSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, -1, 63, -64, 64, -65, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1})
+    void zigzagVarLongRoundTrip(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionSegment.putVarLong(out, TransactionSegment.zigzag(value));
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+
+        assertEquals(value, TransactionSegment.unzigzag(TransactionSegment.getVarLong(in)));
+        assertFalse(in.hasRemaining());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 127, 128, 16_383, 16_384, -1, Long.MAX_VALUE, Long.MIN_VALUE})
+    void varLongRoundTrip(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionSegment.putVarLong(out, value);
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+
+        assertEquals(value, TransactionSegment.getVarLong(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void zigzagKeepsSmallDeltasShort() {
+        assertEquals(0, TransactionSegment.zigzag(0));
+        assertEquals(1, TransactionSegment.zigzag(-1));
+        assertEquals(2, TransactionSegment.zigzag(1));
+        assertEquals(-1, TransactionSegment.zigzag(Long.MIN_VALUE));
+        assertEquals(1, varLongSize(TransactionSegment.zigzag(-64)));
+        assertEquals(2, varLongSize(TransactionSegment.zigzag(-65)));
+        // without zigzag a negative value takes the full ten bytes
+        assertEquals(10, varLongSize(-1));
+        assertEquals(10, varLongSize(TransactionSegment.zigzag(Long.MIN_VALUE)));
+    }
+
+    @Test
+    void blockRoundTripWithNegativeDeltasAndExtremes() {
+        Instant now = Instant.parse("2026-03-01T12:00:00.123456Z");
+        List<Transaction> transactions = List.of(
+                transaction(1, TransactionType.CREDIT, Long.MAX_VALUE, 0, Long.MAX_VALUE, now),
+                // recorded earlier than its predecessor: a negative time delta
+                transaction(2, TransactionType.DEBIT, 1, Long.MAX_VALUE, Long.MAX_VALUE - 1, now.minusSeconds(3600)),
+                transaction(3, TransactionType.DEBIT, Long.MIN_VALUE, Long.MIN_VALUE, -1, now.plusMillis(1)),
+                transaction(Long.MAX_VALUE, TransactionType.CREDIT, 0, -1, Long.MIN_VALUE, Instant.EPOCH));
+
+        byte[] encoded = TransactionSegment.encode(transactions);
+
+        assertEquals(transactions, TransactionSegment.decode(ByteBuffer.wrap(encoded), 7, transactions.size()));
+    }
+
+    @Test
+    void segmentFileRoundTrip() throws IOException {
+        Path file = directory.resolve("transactions" + TransactionSegment.EXTENSION);
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        List<Transaction> transactions = new ArrayList<>();
+        for (long playerId = 1; playerId <= 3; playerId++) {
+            long balance = 0;
+            for (long id = 1; id <= 10; id++) {
+                long amount = 100 * id;
+                TransactionType type = id % 4 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT;
+                long after = type == TransactionType.CREDIT ? balance + amount : balance - amount;
+                Transaction transaction = transaction(playerId * 1000 + id, type, amount, balance, after,
+                        start.plus(id * 7, ChronoUnit.MINUTES));
+                transaction.setPlayerId(playerId);
+                transactions.add(transaction);
+                balance = after;
+            }
+        }
+        try (TransactionSegmentWriter writer = new TransactionSegmentWriter(file, 4)) {
+            for (Transaction transaction : transactions) {
+                writer.append(transaction);
+            }
+            writer.finish();
+        }
+
+        List<Transaction> read = new ArrayList<>();
+        try (TransactionSegment segment = TransactionSegment.open(file)) {
+            // three blocks of at most four transactions for each of the three players
+            assertEquals(9, segment.blockCount());
+            assertEquals(3, segment.firstBlock(2));
+            for (int block = 0; block < segment.blockCount(); block++) {
+                read.addAll(segment.readBlock(block));
+            }
+        }
+        assertEquals(transactions, read);
+    }
+
+    private static Transaction transaction(long id, TransactionType type, long amount, long before, long after,
+                                           Instant createdAt) {
+        return Transaction.builder()
+                .transactionId(id)
+                .type(type)
+                .playerId(7L)
+                .amount(amount)
+                .balanceBefore(before)
+                .balanceAfter(after)
+                .transactionIdentifier(new UUID(id, ~id))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static int varLongSize(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionSegment.putVarLong(out, value);
+        return out.size();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.core.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.core.domain.Transaction;
+import org.example.repository.projection.PlayerSummary;
+import org.example.сonfiguration.BalanceCacheProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerBalanceCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void writesThroughBalancesThatFollowTheCachedOne() {
+        PlayerBalanceCache cache = cache(100, 4);
+        cache.load(new PlayerSummary(7L, "player7", 100));
+
+        cache.record(transaction(7L, 100, 250));
+        assertEquals(Optional.of(new PlayerSummary(7L, "player7", 250)), cache.get("player7"));
+
+        // a transaction that does not start from the cached balance means a change was missed
+        cache.record(transaction(7L, 400, 500));
+        assertTrue(cache.get("player7").isEmpty());
+    }
+
+    @Test
+    void holdsAtMostTheMaximumSizeAcrossSegments() {
+        PlayerBalanceCache cache = cache(64, 4);
+        for (long playerId = 1; playerId <= 1000; playerId++) {
+            cache.load(new PlayerSummary(playerId, "player" + playerId, playerId));
+        }
+
+        assertTrue(meterRegistry.get("wallet.balance.cache.size").gauge().value() <= 64);
+        assertTrue(meterRegistry.get("wallet.balance.cache.evictions").tag("cause", "size").counter().count() >= 936);
+        assertEquals(Optional.of(new PlayerSummary(1000L, "player1000", 1000)), cache.get("player1000"));
+    }
+
+    @Test
+    void evictedPlayerIsNoLongerFoundByUsername() {
+        PlayerBalanceCache cache = cache(1, 1);
+        cache.load(new PlayerSummary(1L, "player1", 10));
+        cache.load(new PlayerSummary(2L, "player2", 20));
+
+        assertTrue(cache.get("player1").isEmpty());
+        assertEquals(Optional.of(new PlayerSummary(2L, "player2", 20)), cache.get("player2"));
+    }
+
+    private PlayerBalanceCache cache(int maximumSize, int segments) {
+        BalanceCacheProperties balanceCacheProperties = new BalanceCacheProperties();
+        balanceCacheProperties.setMaximumSize(maximumSize);
+        balanceCacheProperties.setSegments(segments);
+        PlayerBalanceCache cache = new PlayerBalanceCache(balanceCacheProperties, meterRegistry);
+        cache.start();
+        return cache;
+    }
+
+    private static Transaction transaction(Long playerId, long balanceBefore, long balanceAfter) {
+        return Transaction.builder()
+                .playerId(playerId)
+                .amount(balanceAfter - balanceBefore)
+                .balanceBefore(balanceBefore)
+                .balanceAfter(balanceAfter)
+                .build();
+    }
+}
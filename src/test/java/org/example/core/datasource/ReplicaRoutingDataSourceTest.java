@@ -0,0 +1,195 @@
+package org.example.core.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs a primary and a streaming replica of it, cloned with {@code pg_basebackup}, and checks which of them serves
+ * the transactions of the routing data source. Each test gets a fresh replica, as some stop or pause it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            // replication connections are not matched by the "host all all all" rule of the image
+            .withCopyToContainer(Transferable.of("echo 'host replication all all trust' >> \"$PGDATA/pg_hba.conf\""),
+                    "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    private final GenericContainer<?> replica = new GenericContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK)
+            .withExposedPorts(5432)
+            .withCreateContainerCmdModifier(cmd -> cmd
+                    .withUser("postgres")
+                    .withEntrypoint("sh", "-c", "pg_basebackup -h primary -U " + PRIMARY.getUsername()
+                            + " -D /tmp/replica -R -X stream && exec postgres -D /tmp/replica"))
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(
+                pool("primary", PRIMARY.getJdbcUrl()), List.of(pool("replica-0", replicaUrl())), MAX_LAG);
+        routingDataSource.start(Duration.ofMillis(100));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndTheRestToPrimary() {
+        awaitReadOnlyServedByReplica(true);
+
+        assertFalse(isReplica(readWrite));
+        assertFalse(isReplica());
+    }
+
+    @Test
+    void stoppedReplicaFallsBackToPrimary() {
+        awaitReadOnlyServedByReplica(true);
+
+        replica.stop();
+
+        awaitReadOnlyServedByReplica(false);
+        assertFalse(isReplica(readWrite));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() throws SQLException {
+        awaitReadOnlyServedByReplica(true);
+        // the lag is measured from the last replayed commit, so the replica must have replayed one
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("CREATE TABLE lag_probe (id INT)"));
+        awaitReplayed();
+
+        try (Connection connection = connectToReplica();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_wal_replay_pause()");
+            readWrite.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO lag_probe VALUES (1)"));
+
+            awaitReadOnlyServedByReplica(false);
+
+            statement.execute("SELECT pg_wal_replay_resume()");
+        }
+        awaitReadOnlyServedByReplica(true);
+    }
+
+    private boolean isReplica(TransactionTemplate transactionTemplate) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> isReplica()));
+    }
+
+    private boolean isReplica() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    /**
+     * Waits until read-only transactions are served by the expected node. Reads that fail on a connection taken
+     * before the replica went away are not retried by the data source, so they are retried here.
+     */
+    private void awaitReadOnlyServedByReplica(boolean expected) {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (Instant.now().isBefore(deadline)) {
+            try {
+                if (isReplica(readOnly) == expected) {
+                    return;
+                }
+            } catch (DataAccessException e) {
+                // the replica went away while the read was running on it
+            }
+            sleep();
+        }
+        fail("Read-only transactions were not served by the " + (expected ? "replica" : "primary"));
+    }
+
+    private void awaitReplayed() throws SQLException {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        try (Connection connection = connectToReplica();
+             Statement statement = connection.createStatement()) {
+            while (Instant.now().isBefore(deadline)) {
+                try (ResultSet rs = statement.executeQuery("SELECT to_regclass('lag_probe') IS NOT NULL")) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        return;
+                    }
+                }
+                sleep();
+            }
+        }
+        fail("The replica did not replay the primary's commit");
+    }
+
+    private Connection connectToReplica() throws SQLException {
+        return DriverManager.getConnection(replicaUrl(), PRIMARY.getUsername(), PRIMARY.getPassword());
+    }
+
+    private String replicaUrl() {
+        return "jdbc:postgresql://" + replica.getHost() + ":" + replica.getMappedPort(5432) + "/"
+                + PRIMARY.getDatabaseName();
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(PRIMARY.getUsername());
+        pool.setPassword(PRIMARY.getPassword());
+        pool.setConnectionTimeout(1000);
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.core.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 100_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Test
+    void neverReportsFalseNegative() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        List<UUID> identifiers = IntStream.range(0, EXPECTED_INSERTIONS).mapToObj(i -> UUID.randomUUID()).toList();
+        identifiers.forEach(filter::add);
+
+        assertTrue(identifiers.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void keepsFalsePositivesNearConfiguredProbability() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        // client-chosen identifiers may differ in a few low bits only
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.add(new UUID(0, i));
+        }
+
+        int probes = 100_000;
+        long falsePositives = IntStream.range(0, probes)
+                .filter(i -> filter.mightContain(new UUID(1, i)))
+                .count();
+        assertTrue(falsePositives < probes * FALSE_POSITIVE_PROBABILITY * 2,
+                () -> falsePositives + " false positives in " + probes + " probes");
+    }
+
+    @Test
+    void concurrentAddsLoseNoBits() throws Exception {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> added = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                added.add(executor.submit(() -> {
+                    List<UUID> identifiers = new ArrayList<>();
+                    for (int i = 0; i < EXPECTED_INSERTIONS / threads; i++) {
+                        UUID identifier = UUID.randomUUID();
+                        filter.add(identifier);
+                        identifiers.add(identifier);
+                    }
+                    return identifiers;
+                }));
+            }
+            for (Future<List<UUID>> identifiers : added) {
+                assertTrue(identifiers.get().stream().allMatch(filter::mightContain));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.core.journal;
+
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionJournalTest {
+
+    private static final int RECORD_SIZE = 53;
+    private static final int RECORDS_PER_SEGMENT = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversRecordsAcrossSegmentRolls() throws IOException {
+        List<Transaction> written = append(10);
+
+        assertEquals(3, segmentFiles().size());
+        assertEquals(written, TransactionJournal.recover(directory));
+    }
+
+    @Test
+    void stopsAtRecordTornByCrash() throws IOException {
+        List<Transaction> written = append(7);
+
+        // the third record of the second segment is half written: its payload is cut off by zeros
+        overwrite(segmentFiles().get(1), 2 * RECORD_SIZE + 20, new byte[RECORD_SIZE - 20]);
+
+        assertEquals(written.subList(0, 6), TransactionJournal.recover(directory));
+    }
+
+    @Test
+    void stopsAtCorruptedRecord() throws IOException {
+        List<Transaction> written = append(3);
+
+        overwrite(segmentFiles().get(0), RECORD_SIZE + 10, new byte[]{(byte) 0xFF});
+
+        assertEquals(written.subList(0, 1), TransactionJournal.recover(directory));
+    }
+
+    @Test
+    void skipsRecordsCoveredByCheckpoint() throws IOException {
+        List<Transaction> written = new ArrayList<>();
+        long checkpoint;
+        try (TransactionJournal journal = journal()) {
+            for (int i = 0; i < 6; i++) {
+                written.add(transaction(i));
+                journal.append(written.get(i));
+            }
+            checkpoint = journal.append(transaction(6));
+            written.add(transaction(6));
+            for (int i = 7; i < 10; i++) {
+                written.add(transaction(i));
+                journal.append(written.get(i));
+            }
+            journal.checkpoint(checkpoint);
+        }
+
+        // the first segment holds only flushed records
+        assertEquals(2, segmentFiles().size());
+        assertEquals(written.subList(7, 10), TransactionJournal.recover(directory));
+    }
+
+    @Test
+    void checkpointAtSegmentEndRecoversFromNextSegment() throws IOException {
+        List<Transaction> written = new ArrayList<>();
+        try (TransactionJournal journal = journal()) {
+            long checkpoint = 0;
+            for (int i = 0; i < 6; i++) {
+                written.add(transaction(i));
+                long position = journal.append(written.get(i));
+                if (i == RECORDS_PER_SEGMENT - 1) {
+                    checkpoint = position;
+                }
+            }
+            journal.checkpoint(checkpoint);
+        }
+
+        assertEquals(written.subList(RECORDS_PER_SEGMENT, 6), TransactionJournal.recover(directory));
+    }
+
+    private List<Transaction> append(int count) throws IOException {
+        List<Transaction> written = new ArrayList<>();
+        try (TransactionJournal journal = journal()) {
+            for (int i = 0; i < count; i++) {
+                written.add(transaction(i));
+                journal.append(written.get(i));
+            }
+        }
+        return written;
+    }
+
+    private TransactionJournal journal() throws IOException {
+        return new TransactionJournal(directory, "shard-0", (long) RECORD_SIZE * RECORDS_PER_SEGMENT, FsyncPolicy.NONE);
+    }
+
+    private static Transaction transaction(int i) {
+        return Transaction.builder()
+                .type(i % 3 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT)
+                .playerId(1000L + i % 2)
+                .amount(100L * (i + 1))
+                .balanceBefore(10_000L * i)
+                .balanceAfter(10_000L * i + 100L * (i + 1))
+                .transactionIdentifier(new UUID(i, -i))
+                .build();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static void overwrite(Path file, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}
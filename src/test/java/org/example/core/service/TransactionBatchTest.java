@@ -0,0 +1,72 @@
+package org.example.core.service;
+
+import org.example.core.domain.Transaction;
+import org.example.core.domain.types.BatchEntryStatus;
+import org.example.core.domain.types.TransactionType;
+import org.example.dto.TransactionBatchEntry;
+import org.example.dto.TransactionBatchResult;
+import org.example.exception.TransactionOperationException;
+import org.example.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The default batch of {@link TransactionService} against a ledger whose balance is close to the limit and which has
+ * no funds to debit.
+ */
+class TransactionBatchTest {
+
+    private static final long BALANCE = Long.MAX_VALUE - 100;
+
+    private final TransactionService transactionService = new TransactionService() {
+        @Override
+        public List<Transaction> getPlayerHistory(Long playerId) {
+            return List.of();
+        }
+
+        @Override
+        public Transaction debit(Long playerId, long amount, UUID transactionIdentifier) {
+            throw new TransactionOperationException("Insufficient funds.");
+        }
+
+        @Override
+        public Transaction credit(Long playerId, long amount, UUID transactionIdentifier) {
+            return Transaction.builder().balanceAfter(Money.add(BALANCE, amount)).build();
+        }
+
+        @Override
+        public Transaction transfer(Long fromPlayerId, Long toPlayerId, long amount, UUID transactionIdentifier) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    void reportsEveryRejectionWithItsOwnStatus() {
+        List<TransactionBatchResult> results = transactionService.batch(1L, List.of(
+                entry(TransactionType.CREDIT, "0.50"),
+                entry(TransactionType.CREDIT, "0.001"),
+                entry(TransactionType.CREDIT, "-1.00"),
+                entry(TransactionType.DEBIT, "0"),
+                entry(TransactionType.CREDIT, "100000000000000000000"),
+                entry(TransactionType.CREDIT, "2.00"),
+                entry(TransactionType.DEBIT, "1.00")));
+
+        assertEquals(List.of(
+                BatchEntryStatus.OK,
+                BatchEntryStatus.INVALID_AMOUNT,
+                BatchEntryStatus.INVALID_AMOUNT,
+                BatchEntryStatus.INVALID_AMOUNT,
+                BatchEntryStatus.INVALID_AMOUNT,
+                BatchEntryStatus.BALANCE_LIMIT_EXCEEDED,
+                BatchEntryStatus.INSUFFICIENT_FUNDS), results.stream().map(TransactionBatchResult::getStatus).toList());
+    }
+
+    private static TransactionBatchEntry entry(TransactionType type, String amount) {
+        return new TransactionBatchEntry(type, new BigDecimal(amount), UUID.randomUUID());
+    }
+}
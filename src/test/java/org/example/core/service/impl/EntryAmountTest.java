@@ -0,0 +1,56 @@
+package org.example.core.service.impl;
+
+import org.example.core.service.TransactionService;
+import org.example.exception.TransactionOperationException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * A credit or debit of a zero or negative amount would move the balance the other way than its type, so every ledger
+ * must refuse it whatever the entry point. As in {@link TransferAmountTest}, the ledgers are built without
+ * collaborators.
+ */
+class EntryAmountTest {
+
+    static Stream<Arguments> ledgers() {
+        return Stream.of(-100L, 0L).flatMap(amount -> Stream.of(
+                arguments(new TransactionServiceImpl(null, null, null, null, null, null), amount),
+                arguments(new OptimisticTransactionServiceImpl(null, null, null, null, null, null, null, null), amount),
+                arguments(new EventSourcedTransactionServiceImpl(null, null, null, null, null, null, null), amount),
+                arguments(new ShardedTransactionServiceImpl(null, null, null, null, null, null, null, null), amount)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ledgers")
+    void refusesNonPositiveCredit(TransactionService transactionService, long amount) {
+        assertThrows(TransactionOperationException.class,
+                () -> transactionService.credit(1L, amount, UUID.randomUUID()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ledgers")
+    void refusesNonPositiveDebit(TransactionService transactionService, long amount) {
+        assertThrows(TransactionOperationException.class,
+                () -> transactionService.debit(1L, amount, UUID.randomUUID()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-100, 0})
+    void reactiveLedgerRefusesNonPositiveEntries(long amount) {
+        ReactiveTransactionServiceImpl reactiveTransactionService =
+                new ReactiveTransactionServiceImpl(null, null, null, null);
+
+        assertThrows(TransactionOperationException.class,
+                () -> reactiveTransactionService.credit(1L, amount, UUID.randomUUID()).block());
+        assertThrows(TransactionOperationException.class,
+                () -> reactiveTransactionService.debit(1L, amount, UUID.randomUUID()).block());
+    }
+}
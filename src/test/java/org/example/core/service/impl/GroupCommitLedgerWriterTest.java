@@ -0,0 +1,85 @@
+package org.example.core.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.core.domain.types.TransactionType;
+import org.example.exception.TransactionException;
+import org.example.repository.TransactionRepository;
+import org.example.сonfiguration.LedgerProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The writer commits through a template that runs the callback without a database; what matters is that every caller
+ * returns, with its entry committed or refused, once the writer is stopped.
+ */
+class GroupCommitLedgerWriterTest {
+
+    @Test
+    void refusesWritesAfterShutdown() throws InterruptedException {
+        GroupCommitLedgerWriter writer = writer();
+        writer.start();
+        writer.stop();
+
+        assertThrows(TransactionException.class,
+                () -> writer.write(1L, TransactionType.CREDIT, 100, UUID.randomUUID()));
+    }
+
+    @Test
+    void everyWriterReturnsWhenStoppedUnderLoad() throws Exception {
+        GroupCommitLedgerWriter writer = writer();
+        writer.start();
+        int threads = 16;
+        // daemon threads, so that a writer left waiting fails the test instead of hanging the build
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "test-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long playerId = t;
+                writers.add(executor.submit(() -> {
+                    while (true) {
+                        try {
+                            writer.write(playerId, TransactionType.CREDIT, 100, UUID.randomUUID());
+                        } catch (TransactionException e) {
+                            return;
+                        }
+                    }
+                }));
+            }
+            Thread.sleep(50);
+            writer.stop();
+
+            for (Future<?> future : writers) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GroupCommitLedgerWriter writer() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        return new GroupCommitLedgerWriter(mock(TransactionRepository.class), transactionTemplate,
+                new LedgerProperties(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.core.service.impl;
+
+import org.example.exception.TransactionOperationException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A negative hold would lower the reserved amount and let later debits overdraw, so it must be refused before the
+ * hold reaches the database. The service is built without collaborators for that reason.
+ */
+class HoldAmountTest {
+
+    private final HoldServiceImpl holdService = new HoldServiceImpl(null, null, null, null, null, null, null, null);
+
+    @ParameterizedTest
+    @ValueSource(longs = {-100, 0})
+    void refusesNonPositiveHold(long amount) {
+        assertThrows(TransactionOperationException.class,
+                () -> holdService.place(1L, amount, Duration.ofSeconds(30), UUID.randomUUID()));
+    }
+}
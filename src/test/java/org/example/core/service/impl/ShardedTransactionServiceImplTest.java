@@ -0,0 +1,95 @@
+package org.example.core.service.impl;
+
+import org.example.core.cache.PlayerBalanceCache;
+import org.example.core.domain.Player;
+import org.example.core.idempotency.TransactionIdentifierFilter;
+import org.example.exception.TransactionException;
+import org.example.repository.PlayerRepository;
+import org.example.repository.TransactionRepository;
+import org.example.сonfiguration.LedgerProperties;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The shards apply entries in memory and flush them through a template that runs the callback without a database;
+ * what matters is that every caller returns, with its entry applied or refused, once the ledger is stopped.
+ */
+class ShardedTransactionServiceImplTest {
+
+    @Test
+    void refusesEntriesAfterShutdown() throws Exception {
+        ShardedTransactionServiceImpl ledger = ledger();
+        ledger.start();
+        ledger.stop();
+
+        assertThrows(TransactionException.class, () -> ledger.credit(1L, 100, UUID.randomUUID()));
+    }
+
+    // the shutdown race is narrow, so it is run several times with a short load
+    @RepeatedTest(20)
+    void everyCallerReturnsWhenStoppedUnderLoad() throws Exception {
+        ShardedTransactionServiceImpl ledger = ledger();
+        ledger.start();
+        int threads = 16;
+        // daemon threads, so that a caller left waiting fails the test instead of hanging the build
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "test-caller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long playerId = t;
+                callers.add(executor.submit(() -> {
+                    while (true) {
+                        try {
+                            ledger.credit(playerId, 100, UUID.randomUUID());
+                        } catch (TransactionException e) {
+                            return;
+                        }
+                    }
+                }));
+            }
+            Thread.sleep(5);
+            ledger.stop();
+
+            for (Future<?> future : callers) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ShardedTransactionServiceImpl ledger() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        PlayerRepository playerRepository = mock(PlayerRepository.class);
+        when(playerRepository.findById(any())).thenReturn(Optional.of(Player.builder().balance(0).build()));
+        LedgerProperties ledgerProperties = new LedgerProperties();
+        ledgerProperties.getSharded().setShards(2);
+        ledgerProperties.getSharded().setQueueCapacity(4);
+        return new ShardedTransactionServiceImpl(mock(TransactionRepository.class), null, null, playerRepository,
+                transactionTemplate, ledgerProperties, mock(TransactionIdentifierFilter.class),
+                mock(PlayerBalanceCache.class));
+    }
+}
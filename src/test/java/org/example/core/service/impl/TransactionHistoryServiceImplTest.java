@@ -0,0 +1,65 @@
+package org.example.core.service.impl;
+
+import org.example.core.domain.HistoryPageRequest;
+import org.example.core.domain.TransactionPage;
+import org.example.exception.TransactionOperationException;
+import org.example.repository.projection.TransactionView;
+import org.example.сonfiguration.HistoryProperties;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The cursor of a full page must lead back to the last transaction of the page and its recording time, which bounds
+ * the partitions the next page reads. Full pages never reach the archive, so the service is built without it.
+ */
+class TransactionHistoryServiceImplTest {
+
+    private final TransactionHistoryServiceImpl historyService =
+            new TransactionHistoryServiceImpl(null, null, new HistoryProperties());
+
+    @Test
+    void cursorCarriesTheIdAndRecordingTimeOfTheLastTransaction() {
+        HistoryPageRequest first = historyService.toPageRequest(7L, null, 2, null, null, null);
+        TransactionPage page = historyService.completePage(first, List.of(view(30), view(20), view(10)));
+
+        HistoryPageRequest next = historyService.toPageRequest(7L, page.nextCursor(), 2, null, null, null);
+
+        assertEquals(20L, next.beforeId());
+        assertEquals(view(20).createdAt(), next.beforeCreatedAt());
+    }
+
+    @Test
+    void cursorWithoutRecordingTimeStillDecodes() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("20".getBytes(StandardCharsets.US_ASCII));
+
+        HistoryPageRequest next = historyService.toPageRequest(7L, cursor, 2, null, null, null);
+
+        assertEquals(20L, next.beforeId());
+        assertNull(next.beforeCreatedAt());
+    }
+
+    @Test
+    void refusesMalformedCursor() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("20/yesterday".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(TransactionOperationException.class,
+                () -> historyService.toPageRequest(7L, cursor, 2, null, null, null));
+    }
+
+    private static TransactionView view(long id) {
+        return new TransactionView(id, "CREDIT", BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE,
+                new UUID(id, ~id), Instant.parse("2026-01-01T00:00:00.123456Z").plusSeconds(id));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.core.service.impl;
+
+import org.example.core.service.TransactionService;
+import org.example.exception.TransactionOperationException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * A transfer of a zero or negative amount would credit the sender and debit the recipient, so every ledger must
+ * refuse it before it touches the database. The ledgers are built without collaborators: reaching any of them fails
+ * the test with a {@link NullPointerException} instead of the expected rejection.
+ */
+class TransferAmountTest {
+
+    static Stream<Arguments> ledgers() {
+        return Stream.of(-100L, 0L).flatMap(amount -> Stream.of(
+                arguments(new TransactionServiceImpl(null, null, null, null, null, null), amount),
+                arguments(new OptimisticTransactionServiceImpl(null, null, null, null, null, null, null, null), amount),
+                arguments(new EventSourcedTransactionServiceImpl(null, null, null, null, null, null, null), amount)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ledgers")
+    void refusesNonPositiveTransfer(TransactionService transactionService, long amount) {
+        assertThrows(TransactionOperationException.class,
+                () -> transactionService.transfer(1L, 2L, amount, UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.core.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimerWheelTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int WHEEL_SIZE = 4;
+
+    @Test
+    void firesTimeoutsDueSeveralRotationsAhead() throws InterruptedException {
+        // one rotation of the wheel is 40 ms, so these fall in the first, second and fourth rotation, and the last
+        // two share a bucket with the first
+        List<Long> delays = List.of(15L, 55L, 135L);
+        Map<Long, Instant> deadlines = new ConcurrentHashMap<>();
+        Map<Long, Instant> fired = new ConcurrentHashMap<>();
+        List<Long> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(delays.size());
+
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", TICK, WHEEL_SIZE, Runnable::run)) {
+            for (Long delay : delays) {
+                Instant deadline = Instant.now().plusMillis(delay);
+                deadlines.put(delay, deadline);
+                wheel.schedule(() -> {
+                    fired.put(delay, Instant.now());
+                    order.add(delay);
+                    done.countDown();
+                }, deadline);
+            }
+            assertEquals(delays.size(), wheel.pending());
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(0, wheel.pending());
+        }
+
+        assertEquals(delays, order);
+        for (Long delay : delays) {
+            assertFalse(fired.get(delay).isBefore(deadlines.get(delay)), "timeout of " + delay + " ms fired early");
+        }
+    }
+
+    @Test
+    void doesNotFireBeforeLaterRotation() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", TICK, WHEEL_SIZE, Runnable::run)) {
+            wheel.schedule(done::countDown, Instant.now().plusMillis(200));
+
+            // five rotations pass the bucket of the timeout before it is due
+            assertFalse(done.await(150, TimeUnit.MILLISECONDS));
+            assertEquals(1, wheel.pending());
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void firesOverdueTimeoutOnNextTick() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", TICK, WHEEL_SIZE, Runnable::run)) {
+            wheel.schedule(done::countDown, Instant.now().minusSeconds(1));
+
+            assertTrue(done.await(1, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Liquibase changelog against PostgreSQL, seeds enough rows that a sequential scan would be the cheaper plan
+ * for an unindexed predicate, and checks with {@code EXPLAIN} that the hot lookups of the ledger are served by the
+ * indexes of changesets 018 to 022.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotQueryPlanTest {
+
+    private static final int PLAYERS = 10_000;
+    private static final int TRANSACTIONS_PER_PLAYER = 20;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long playerId;
+    private String username;
+    private long transactionId;
+    private String transactionIdentifier;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO wallet.players (username, password, role)
+                SELECT 'player' || g, 'password', 'USER' FROM generate_series(1, ?) g
+                """, PLAYERS);
+        jdbcTemplate.update("""
+                INSERT INTO wallet.transactions
+                    (type, amount, balance_before, balance_after, transaction_identifier, player_id)
+                SELECT 'CREDIT', 100, (g - 1) * 100, g * 100, gen_random_uuid()::text, p.id
+                FROM wallet.players p, generate_series(1, ?) g
+                """, TRANSACTIONS_PER_PLAYER);
+        jdbcTemplate.execute("ANALYZE");
+
+        playerId = jdbcTemplate.queryForObject("SELECT id FROM wallet.players ORDER BY id OFFSET ? LIMIT 1",
+                Long.class, PLAYERS / 2);
+        username = jdbcTemplate.queryForObject("SELECT username FROM wallet.players WHERE id = ?",
+                String.class, playerId);
+        transactionId = jdbcTemplate.queryForObject(
+                "SELECT id FROM wallet.transactions WHERE player_id = ? ORDER BY id OFFSET ? LIMIT 1",
+                Long.class, playerId, TRANSACTIONS_PER_PLAYER / 2);
+        transactionIdentifier = jdbcTemplate.queryForObject(
+                "SELECT transaction_identifier FROM wallet.transactions WHERE player_id = ? AND id = ?",
+                String.class, playerId, transactionId);
+    }
+
+    @Test
+    void historyPageSeeksThePlayerIndex() {
+        assertIndexScan("SELECT * FROM wallet.transactions WHERE player_id = " + playerId
+                + " AND id < " + transactionId + " ORDER BY id DESC LIMIT 50");
+    }
+
+    @Test
+    void historyPageBeforeThisMonthSkipsItsPartition() {
+        OffsetDateTime monthStart = OffsetDateTime.now(ZoneOffset.UTC).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN (COSTS OFF) SELECT * FROM wallet.transactions
+                WHERE player_id = %d AND id < %d AND created_at <= '%s'
+                ORDER BY id DESC LIMIT 50
+                """.formatted(playerId, transactionId, monthStart.minusNanos(1000)), String.class));
+        String currentPartition = "transactions_y%04dm%02d".formatted(monthStart.getYear(), monthStart.getMonthValue());
+        assertFalse(plan.contains(currentPartition), () -> currentPartition + " is scanned in\n" + plan);
+    }
+
+    @Test
+    void transactionIdentifierLookupUsesTheIdentifierTable() {
+        assertIndexScan("""
+                SELECT t.* FROM wallet.transaction_identifiers i
+                JOIN wallet.transactions t ON t.id = i.transaction_id AND t.created_at = i.created_at
+                WHERE i.transaction_identifier = '%s'
+                """.formatted(transactionIdentifier));
+    }
+
+    @Test
+    void eventSourcedFoldReadsOnlyTheLogTail() {
+        assertIndexScan("""
+                SELECT p.balance + COALESCE(SUM(CASE t.type WHEN 'CREDIT' THEN t.amount ELSE -t.amount END), 0)
+                FROM wallet.players p
+                LEFT JOIN wallet.transactions t ON t.player_id = p.id AND t.id > p.snapshot_transaction_id
+                WHERE p.id = %d
+                GROUP BY p.id, p.balance
+                """.formatted(playerId));
+    }
+
+    @Test
+    void playerLookupUsesTheUsernameIndex() {
+        assertIndexScan("SELECT id, username, balance FROM wallet.players WHERE username = '" + username + "'");
+    }
+
+    private void assertIndexScan(String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN (COSTS OFF) " + sql, String.class));
+        assertFalse(plan.contains("Seq Scan"), () -> "sequential scan in\n" + plan);
+        assertTrue(plan.contains("Index"), () -> "no index scan in\n" + plan);
+    }
+}
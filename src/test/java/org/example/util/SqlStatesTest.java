@@ -0,0 +1,27 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatesTest {
+
+    @Test
+    void recognisesUniqueViolationInCauseChain() {
+        SQLException cause = new SQLException("duplicate key value", SqlStates.UNIQUE_VIOLATION);
+        assertTrue(SqlStates.isUniqueViolation(
+                new DataIntegrityViolationException("insert", new RuntimeException(cause))));
+    }
+
+    @Test
+    void rejectsOtherIntegrityViolations() {
+        // 22003: numeric value out of range, raised by a bigint overflow
+        assertFalse(SqlStates.isUniqueViolation(
+                new DataIntegrityViolationException("update", new SQLException("bigint out of range", "22003"))));
+        assertFalse(SqlStates.isUniqueViolation(new DataIntegrityViolationException("update")));
+    }
+}
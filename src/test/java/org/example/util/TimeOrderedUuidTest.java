@@ -0,0 +1,89 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void increasesWithinOneMillisecond() {
+        // more identifiers than the 12-bit counter holds, so most share a millisecond and the counter overflows
+        List<UUID> identifiers = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            identifiers.add(TimeOrderedUuid.next());
+        }
+
+        int sharedMillisecond = 0;
+        for (int i = 1; i < identifiers.size(); i++) {
+            UUID previous = identifiers.get(i - 1);
+            UUID current = identifiers.get(i);
+            assertTrue(previous.toString().compareTo(current.toString()) < 0, previous + " is not before " + current);
+            if (millis(previous) == millis(current)) {
+                sharedMillisecond++;
+            }
+        }
+        assertTrue(sharedMillisecond > 0);
+    }
+
+    @Test
+    void setsVersionAndVariant() {
+        UUID identifier = TimeOrderedUuid.next();
+
+        assertEquals(7, identifier.version());
+        assertEquals(2, identifier.variant());
+    }
+
+    @Test
+    void carriesCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID identifier = TimeOrderedUuid.next();
+
+        // the timestamp runs ahead of the clock only after counter overflows of earlier tests
+        assertTrue(millis(identifier) >= before);
+    }
+
+    @Test
+    void concurrentCallersGetUniqueIncreasingIdentifiers() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> generated = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                generated.add(executor.submit(() -> {
+                    List<UUID> identifiers = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        identifiers.add(TimeOrderedUuid.next());
+                    }
+                    return identifiers;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : generated) {
+                List<UUID> identifiers = future.get();
+                for (int i = 1; i < identifiers.size(); i++) {
+                    assertTrue(identifiers.get(i - 1).toString().compareTo(identifiers.get(i).toString()) < 0);
+                }
+                all.addAll(identifiers);
+            }
+            assertEquals(threads * 10_000, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long millis(UUID identifier) {
+        return identifier.getMostSignificantBits() >>> 16;
+    }
+}